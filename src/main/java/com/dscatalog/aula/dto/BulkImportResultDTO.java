@@ -0,0 +1,35 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long received;
+	private Long inserted;
+	private List<BulkRowErrorDTO> errors = new ArrayList<>();
+	
+	public BulkImportResultDTO() {
+	}
+
+	public BulkImportResultDTO(Long received, Long inserted, List<BulkRowErrorDTO> errors) {
+		this.received = received;
+		this.inserted = inserted;
+		this.errors = errors;
+	}
+
+	public Long getReceived() {
+		return received;
+	}
+
+	public Long getInserted() {
+		return inserted;
+	}
+
+	public List<BulkRowErrorDTO> getErrors() {
+		return errors;
+	}
+	
+}
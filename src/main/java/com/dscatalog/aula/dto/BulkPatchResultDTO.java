@@ -0,0 +1,41 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkPatchResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long received;
+	private Long updated;
+	private List<Long> notFound = new ArrayList<>();
+	private List<BulkRowErrorDTO> errors = new ArrayList<>();
+	
+	public BulkPatchResultDTO() {
+	}
+
+	public BulkPatchResultDTO(Long received, Long updated, List<Long> notFound, List<BulkRowErrorDTO> errors) {
+		this.received = received;
+		this.updated = updated;
+		this.notFound = notFound;
+		this.errors = errors;
+	}
+
+	public Long getReceived() {
+		return received;
+	}
+
+	public Long getUpdated() {
+		return updated;
+	}
+
+	public List<Long> getNotFound() {
+		return notFound;
+	}
+
+	public List<BulkRowErrorDTO> getErrors() {
+		return errors;
+	}
+	
+}
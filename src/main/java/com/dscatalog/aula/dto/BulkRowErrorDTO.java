@@ -0,0 +1,29 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkRowErrorDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long row;
+	private List<String> messages = new ArrayList<>();
+	
+	public BulkRowErrorDTO() {
+	}
+
+	public BulkRowErrorDTO(Long row, List<String> messages) {
+		this.row = row;
+		this.messages = messages;
+	}
+
+	public Long getRow() {
+		return row;
+	}
+
+	public List<String> getMessages() {
+		return messages;
+	}
+	
+}
@@ -0,0 +1,45 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+
+public class CacheStatsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long hits;
+	private Long misses;
+	private Long evictions;
+	private Long size;
+	private Long bytes;
+	
+	public CacheStatsDTO() {
+	}
+
+	public CacheStatsDTO(Long hits, Long misses, Long evictions, Long size, Long bytes) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+		this.bytes = bytes;
+	}
+
+	public Long getHits() {
+		return hits;
+	}
+
+	public Long getMisses() {
+		return misses;
+	}
+
+	public Long getEvictions() {
+		return evictions;
+	}
+
+	public Long getSize() {
+		return size;
+	}
+
+	public Long getBytes() {
+		return bytes;
+	}
+	
+}
@@ -0,0 +1,47 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+import java.util.Map;
+
+public class CatalogStatsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long catalogVersion;
+	private CacheStatsDTO searchResultCache;
+	private CacheStatsDTO categoryListingCache;
+	private Map<String, CacheStatsDTO> cacheRegions;
+	private Map<String, CoalescingStatsDTO> coalescing;
+	
+	public CatalogStatsDTO() {
+	}
+
+	public CatalogStatsDTO(Long catalogVersion, CacheStatsDTO searchResultCache, CacheStatsDTO categoryListingCache,
+			Map<String, CacheStatsDTO> cacheRegions, Map<String, CoalescingStatsDTO> coalescing) {
+		this.catalogVersion = catalogVersion;
+		this.searchResultCache = searchResultCache;
+		this.categoryListingCache = categoryListingCache;
+		this.cacheRegions = cacheRegions;
+		this.coalescing = coalescing;
+	}
+
+	public Long getCatalogVersion() {
+		return catalogVersion;
+	}
+
+	public CacheStatsDTO getSearchResultCache() {
+		return searchResultCache;
+	}
+
+	public CacheStatsDTO getCategoryListingCache() {
+		return categoryListingCache;
+	}
+
+	public Map<String, CacheStatsDTO> getCacheRegions() {
+		return cacheRegions;
+	}
+
+	public Map<String, CoalescingStatsDTO> getCoalescing() {
+		return coalescing;
+	}
+	
+}
@@ -3,13 +3,18 @@ package com.dscatalog.aula.dto;
 import java.io.Serializable;
 
 import com.dscatalog.aula.entities.Category;
+import com.dscatalog.aula.projections.VersionProjection;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
-public class CategoryDTO implements Serializable {
+public class CategoryDTO implements Serializable, VersionProjection {
 	private static final long serialVersionUID = 1L;
 	
 	private Long id;
 	private String name;
 	
+	@JsonIgnore
+	private Long version;
+	
 	public CategoryDTO() {
 	}
 
@@ -18,9 +23,20 @@ public class CategoryDTO implements Serializable {
 		this.name = name;
 	}
 	
+	public CategoryDTO(Long id, String name, Long version) {
+		this.id = id;
+		this.name = name;
+		this.version = version;
+	}
+	
+	public CategoryDTO(CategoryDTO other) {
+		this(other.id, other.name, other.version);
+	}
+	
 	public CategoryDTO(Category entity) {
 		this.id = entity.getId();
 		this.name = entity.getName();
+		this.version = entity.getVersion();
 	}
 
 	public Long getId() {
@@ -38,5 +54,13 @@ public class CategoryDTO implements Serializable {
 	public void setName(String name) {
 		this.name = name;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 	
 }
@@ -0,0 +1,33 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+
+public class CategoryFacetDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String name;
+	private Long count;
+	
+	public CategoryFacetDTO() {
+	}
+
+	public CategoryFacetDTO(Long id, String name, Long count) {
+		this.id = id;
+		this.name = name;
+		this.count = count;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+	
+}
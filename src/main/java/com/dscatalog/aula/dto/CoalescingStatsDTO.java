@@ -0,0 +1,33 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+
+public class CoalescingStatsDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Long calls;
+	private Long coalesced;
+	private Long inFlight;
+	
+	public CoalescingStatsDTO() {
+	}
+
+	public CoalescingStatsDTO(Long calls, Long coalesced, Long inFlight) {
+		this.calls = calls;
+		this.coalesced = coalesced;
+		this.inFlight = inFlight;
+	}
+
+	public Long getCalls() {
+		return calls;
+	}
+
+	public Long getCoalesced() {
+		return coalesced;
+	}
+
+	public Long getInFlight() {
+		return inFlight;
+	}
+	
+}
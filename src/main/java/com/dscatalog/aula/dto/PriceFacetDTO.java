@@ -0,0 +1,33 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+
+public class PriceFacetDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Double min;
+	private Double max;
+	private Long count;
+	
+	public PriceFacetDTO() {
+	}
+
+	public PriceFacetDTO(Double min, Double max, Long count) {
+		this.min = min;
+		this.max = max;
+		this.count = count;
+	}
+
+	public Double getMin() {
+		return min;
+	}
+
+	public Double getMax() {
+		return max;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+	
+}
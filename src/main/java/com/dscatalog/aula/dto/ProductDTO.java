@@ -3,18 +3,25 @@ package com.dscatalog.aula.dto;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import com.dscatalog.aula.entities.Category;
 import com.dscatalog.aula.entities.Product;
+import com.dscatalog.aula.projections.IdProjection;
+import com.dscatalog.aula.projections.ProductRow;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
-public class ProductDTO implements Serializable {
+public class ProductDTO implements Serializable, IdProjection<Long> {
 	private static final long serialVersionUID = 1L;
 
 	private Long id;
@@ -33,6 +40,9 @@ public class ProductDTO implements Serializable {
 	
 	private List<CategoryDTO> categories = new ArrayList<>();
 	
+	@JsonIgnore
+	private Long version;
+	
 	public ProductDTO() {}
 
 	public ProductDTO(Long id, String name, String description, Double price, String imgUrl, Instant date) {
@@ -52,6 +62,7 @@ public class ProductDTO implements Serializable {
 		this.price = entity.getPrice();
 		this.imgUrl = entity.getImgUrl();
 		this.date = entity.getDate();
+		this.version = entity.getVersion();
 	}
 	
 	public ProductDTO(Product entity, Set<Category> categories) {
@@ -59,7 +70,66 @@ public class ProductDTO implements Serializable {
 		categories.forEach(
 				category -> this.categories.add(new CategoryDTO(category)));
 	}
-
+	
+	public ProductDTO(ProductRow row) {
+		this(row.id(), row.name(), row.description(), row.price(), row.imgUrl(), row.date());
+		this.version = row.version();
+	}
+	
+	/**
+	 * Copy sharing nothing mutable with the original, for results kept or handed
+	 * to more than one caller.
+	 */
+	public ProductDTO(ProductDTO other) {
+		this(other.id, other.name, other.description, other.price, other.imgUrl, other.date);
+		this.version = other.version;
+		other.categories.forEach(category -> this.categories.add(new CategoryDTO(category)));
+	}
+	
+	/**
+	 * Folds product/category rows into DTOs, in the order each product is first seen.
+	 */
+	public static List<ProductDTO> fromRows(List<ProductRow> rows) {
+		Map<Long, ProductDTO> map = new LinkedHashMap<>();
+		for (ProductRow row : rows) {
+			ProductDTO dto = map.computeIfAbsent(row.id(), x -> new ProductDTO(row));
+			if (row.categoryId() != null) {
+				dto.categories.add(new CategoryDTO(row.categoryId(), row.categoryName()));
+			}
+		}
+		return new ArrayList<>(map.values());
+	}
+
+	/**
+	 * Folds rows grouped by product, as read from a cursor, one DTO at a time.
+	 */
+	public static Iterator<ProductDTO> fromGroupedRows(Iterator<ProductRow> rows) {
+		return new Iterator<>() {
+			private ProductRow pending = rows.hasNext() ? rows.next() : null;
+
+			@Override
+			public boolean hasNext() {
+				return pending != null;
+			}
+
+			@Override
+			public ProductDTO next() {
+				if (pending == null) {
+					throw new NoSuchElementException();
+				}
+				ProductDTO dto = new ProductDTO(pending);
+				do {
+					if (pending.categoryId() != null) {
+						dto.categories.add(new CategoryDTO(pending.categoryId(), pending.categoryName()));
+					}
+					pending = rows.hasNext() ? rows.next() : null;
+				} while (pending != null && pending.id().equals(dto.id));
+				return dto;
+			}
+		};
+	}
+
+	@Override
 	public Long getId() {
 		return id;
 	}
@@ -115,5 +185,13 @@ public class ProductDTO implements Serializable {
 	public void setCategories(List<CategoryDTO> categories) {
 		this.categories = categories;
 	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 	
- }
+}
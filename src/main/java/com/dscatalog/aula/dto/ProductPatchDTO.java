@@ -0,0 +1,103 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Sparse change to one product. Null fields are left untouched; categories,
+ * when present, replace the whole category set and may not be empty, since a
+ * product without categories drops out of every search.
+ */
+public class ProductPatchDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@NotNull(message = "Campo obrigatório")
+	private Long id;
+
+	@Size(min = 4, max = 50, message = "Nome de Produto deve ter entre 4 a 50 caracteres")
+	private String name;
+	private String description;
+	
+	@Positive(message = "Preço deve ser um valor positivo")
+	private Double price;
+	private String imgUrl;
+	
+	@PastOrPresent(message = "Data do produto não pode ser futura")
+	private Instant date;
+	
+	@Size(min = 1, message = "Produto deve ter ao menos uma categoria")
+	private List<CategoryDTO> categories;
+	
+	public ProductPatchDTO() {}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	public Double getPrice() {
+		return price;
+	}
+
+	public void setPrice(Double price) {
+		this.price = price;
+	}
+
+	public String getImgUrl() {
+		return imgUrl;
+	}
+
+	public void setImgUrl(String imgUrl) {
+		this.imgUrl = imgUrl;
+	}
+
+	public Instant getDate() {
+		return date;
+	}
+
+	public void setDate(Instant date) {
+		this.date = date;
+	}
+
+	public List<CategoryDTO> getCategories() {
+		return categories;
+	}
+
+	public void setCategories(List<CategoryDTO> categories) {
+		this.categories = categories;
+	}
+
+	/**
+	 * Whether any field besides the id was sent.
+	 */
+	public boolean hasChanges() {
+		return name != null || description != null || price != null || imgUrl != null || date != null
+				|| categories != null;
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.dscatalog.aula.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+public class ProductSearchResultDTO implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private Slice<ProductDTO> page;
+	private List<CategoryFacetDTO> categoryFacets;
+	private List<PriceFacetDTO> priceFacets;
+	
+	public ProductSearchResultDTO() {
+	}
+
+	public ProductSearchResultDTO(Slice<ProductDTO> page, List<CategoryFacetDTO> categoryFacets,
+			List<PriceFacetDTO> priceFacets) {
+		this.page = page;
+		this.categoryFacets = categoryFacets;
+		this.priceFacets = priceFacets;
+	}
+
+	public Slice<ProductDTO> getPage() {
+		return page;
+	}
+
+	public List<CategoryFacetDTO> getCategoryFacets() {
+		return categoryFacets;
+	}
+
+	public List<PriceFacetDTO> getPriceFacets() {
+		return priceFacets;
+	}
+	
+}
@@ -1,15 +1,21 @@
 package com.dscatalog.aula.dto;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.dscatalog.aula.entities.User;
+import com.dscatalog.aula.projections.IdProjection;
+import com.dscatalog.aula.projections.UserRow;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
-public class UserDTO implements Serializable {
+public class UserDTO implements Serializable, IdProjection<Long> {
 	private static final long serialVersionUID = 1L;
 
 	private Long id;
@@ -39,6 +45,21 @@ public class UserDTO implements Serializable {
 		entity.getRoles().forEach(role -> this.roles.add(new RoleDTO(role)));
 	}
 
+	/**
+	 * Folds user/role rows into DTOs, in the order each user is first seen.
+	 */
+	public static List<UserDTO> fromRows(List<UserRow> rows) {
+		Map<Long, UserDTO> map = new LinkedHashMap<>();
+		for (UserRow row : rows) {
+			UserDTO dto = map.computeIfAbsent(row.id(), x -> new UserDTO(row.id(), row.firstName(), row.lastName(), row.email()));
+			if (row.roleId() != null) {
+				dto.roles.add(new RoleDTO(row.roleId(), row.authority()));
+			}
+		}
+		return new ArrayList<>(map.values());
+	}
+
+	@Override
 	public Long getId() {
 		return id;
 	}
@@ -6,6 +6,10 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -15,11 +19,15 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "tb_category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Category.CACHE_REGION)
 public class Category implements Serializable {
 	private static final long serialVersionUID = 1L;
+
+	public static final String CACHE_REGION = "category";
 	
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -32,6 +40,10 @@ public class Category implements Serializable {
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant updatedAt;
 	
+	@Version
+	@ColumnDefault("0")
+	private Long version;
+	
 	@ManyToMany(mappedBy = "categories")
 	private Set<Product> products = new HashSet<>();
 	
@@ -56,6 +68,10 @@ public class Category implements Serializable {
 		return name;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	public void setName(String name) {
 		this.name = name;
 	}
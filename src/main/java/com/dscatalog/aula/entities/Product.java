@@ -7,20 +7,34 @@ import java.util.Set;
 
 import com.dscatalog.aula.projections.IdProjection;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "tb_product")
+@Table(name = "tb_product", indexes = {
+		@Index(name = "idx_product_name_id", columnList = "name, id"),
+		@Index(name = "idx_product_price_id", columnList = "price, id"),
+		@Index(name = "idx_product_date_id", columnList = "date, id")
+})
+@NamedEntityGraph(name = Product.WITH_CATEGORIES, attributeNodes = @NamedAttributeNode("categories"))
 public class Product implements IdProjection<Long> {
 
+	/** Fetch plan loading the categories together with the product. */
+	public static final String WITH_CATEGORIES = "Product.withCategories";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -34,6 +48,10 @@ public class Product implements IdProjection<Long> {
 	@Column(columnDefinition = "TIMESTAMP WITHOUT TIME ZONE")
 	private Instant date;
 	
+	@Version
+	@ColumnDefault("0")
+	private Long version;
+	
 	@ManyToMany
 	@JoinTable(name="tb_product_category",
 		joinColumns = @JoinColumn(name = "product_id"),
@@ -67,6 +85,10 @@ public class Product implements IdProjection<Long> {
 		return name;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
 	public void setName(String name) {
 		this.name = name;
 	}
@@ -2,6 +2,8 @@ package com.dscatalog.aula.entities;
 
 import java.util.Objects;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 import jakarta.persistence.Entity;
@@ -12,8 +14,11 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "tb_role")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Role.CACHE_REGION)
 public class Role implements GrantedAuthority {
 	private static final long serialVersionUID = 1L;
+
+	public static final String CACHE_REGION = "role";
 	
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,13 +17,19 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "tb_user")
+@NamedEntityGraph(name = User.WITH_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 public class User implements UserDetails {
 	private static final long serialVersionUID = 1L;
 
+	/** Fetch plan loading the roles together with the user. */
+	public static final String WITH_ROLES = "User.withRoles";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -34,7 +40,7 @@ public class User implements UserDetails {
 	private String email;
 	private String password;
 	
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany(fetch = FetchType.LAZY)
 	@JoinTable(name = "tb_user_role", 
 		joinColumns = @JoinColumn(name = "user_id"),
 		inverseJoinColumns = @JoinColumn(name = "role_id"))
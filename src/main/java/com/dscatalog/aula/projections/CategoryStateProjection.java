@@ -0,0 +1,11 @@
+package com.dscatalog.aula.projections;
+
+public interface CategoryStateProjection {
+
+	Long getTotal();
+
+	Long getMaxId();
+
+	Long getVersions();
+
+}
@@ -0,0 +1,10 @@
+package com.dscatalog.aula.projections;
+
+/**
+ * One row of tb_product_category.
+ */
+public interface ProductCategoryProjection extends IdProjection<Long> {
+
+	Long getCategoryId();
+
+}
@@ -0,0 +1,11 @@
+package com.dscatalog.aula.projections;
+
+import java.time.Instant;
+
+public interface ProductRangeProjection extends IdProjection<Long> {
+
+	Double getPrice();
+
+	Instant getDate();
+
+}
@@ -0,0 +1,17 @@
+package com.dscatalog.aula.projections;
+
+import java.time.Instant;
+
+/**
+ * One product joined with one of its categories (category fields are null for a
+ * product without categories), read through a JPQL constructor expression.
+ */
+public record ProductRow(Long id, String name, String description, Double price, String imgUrl, Instant date,
+		Long version, Long categoryId, String categoryName) implements IdProjection<Long> {
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+}
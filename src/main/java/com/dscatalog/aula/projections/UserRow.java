@@ -0,0 +1,14 @@
+package com.dscatalog.aula.projections;
+
+/**
+ * One user joined with one of its roles, read through a JPQL constructor expression.
+ */
+public record UserRow(Long id, String firstName, String lastName, String email, Long roleId, String authority)
+		implements IdProjection<Long> {
+
+	@Override
+	public Long getId() {
+		return id;
+	}
+
+}
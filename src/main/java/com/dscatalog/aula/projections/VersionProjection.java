@@ -0,0 +1,7 @@
+package com.dscatalog.aula.projections;
+
+public interface VersionProjection extends IdProjection<Long> {
+
+	Long getVersion();
+	
+}
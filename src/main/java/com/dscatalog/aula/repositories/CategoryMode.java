@@ -0,0 +1,27 @@
+package com.dscatalog.aula.repositories;
+
+import java.util.Locale;
+
+/**
+ * How the categories of a product search combine.
+ */
+public enum CategoryMode {
+
+	/** Products in at least one of the categories. */
+	ANY,
+
+	/** Products in every one of the categories. */
+	ALL;
+
+	/**
+	 * Parses a request value ignoring case; throws IllegalArgumentException when unknown.
+	 */
+	public static CategoryMode from(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid category mode - " + value);
+		}
+	}
+
+}
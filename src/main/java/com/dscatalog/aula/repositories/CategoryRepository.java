@@ -1,11 +1,49 @@
 package com.dscatalog.aula.repositories;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.dscatalog.aula.dto.CategoryDTO;
 import com.dscatalog.aula.entities.Category;
+import com.dscatalog.aula.projections.CategoryStateProjection;
+import com.dscatalog.aula.projections.VersionProjection;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
+	String CATEGORY_DTO = "SELECT new com.dscatalog.aula.dto.CategoryDTO(obj.id, obj.name, obj.version) FROM Category obj ";
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceQueries.CACHE_REGION) })
+	@Query(CATEGORY_DTO + "ORDER BY obj.id")
+	List<CategoryDTO> searchAllCategoryDTOs();
+
+	@Query(value = CATEGORY_DTO, countQuery = "SELECT COUNT(obj) FROM Category obj")
+	Page<CategoryDTO> searchAllCategoryDTOs(Pageable pageable);
+
+	@Query(CATEGORY_DTO + "WHERE obj.id = :id")
+	Optional<CategoryDTO> searchCategoryDTO(Long id);
+
+	@Query("SELECT obj.id AS id, obj.version AS version FROM Category obj WHERE obj.id = :id")
+	Optional<VersionProjection> searchVersion(Long id);
+
+	/**
+	 * Changes with every committed insert, update or delete made through
+	 * Hibernate on any node. Never cached.
+	 */
+	@Query("SELECT COUNT(obj) AS total, COALESCE(MAX(obj.id), 0) AS maxId, COALESCE(SUM(obj.version), 0) AS versions "
+			+ "FROM Category obj")
+	CategoryStateProjection searchCategoryState();
+
 }
@@ -0,0 +1,24 @@
+package com.dscatalog.aula.repositories;
+
+import java.util.List;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.dto.ProductPatchDTO;
+
+public interface ProductBatchRepository {
+
+	/**
+	 * Inserts the products and their category links with JDBC batches, bypassing
+	 * the persistence context. Returns the generated ids in input order.
+	 */
+	List<Long> insertBatch(List<ProductDTO> products);
+
+	/**
+	 * Applies sparse changes with one JDBC batch per set of changed columns, without
+	 * loading entities. Every patched row gets its version bumped. Category links are
+	 * only rewritten for patches that carry categories. Patches whose id does not
+	 * exist are skipped; returns the updated ids.
+	 */
+	List<Long> patchBatch(List<ProductPatchDTO> patches);
+
+}
@@ -0,0 +1,148 @@
+package com.dscatalog.aula.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.dto.ProductPatchDTO;
+
+public class ProductBatchRepositoryImpl implements ProductBatchRepository {
+
+	private static final String INSERT_PRODUCT =
+			"INSERT INTO tb_product (name, description, price, img_url, date) VALUES (?, ?, ?, ?, ?)";
+
+	private static final String INSERT_PRODUCT_CATEGORY =
+			"INSERT INTO tb_product_category (product_id, category_id) VALUES (?, ?)";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+	@Override
+	@Transactional
+	public List<Long> insertBatch(List<ProductDTO> products) {
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_PRODUCT, new String[] { "id" }),
+				new BatchPreparedStatementSetter() {
+
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ProductDTO dto = products.get(i);
+						ps.setString(1, dto.getName());
+						ps.setString(2, dto.getDescription());
+						ps.setObject(3, dto.getPrice(), Types.DOUBLE);
+						ps.setString(4, dto.getImgUrl());
+						ps.setTimestamp(5, dto.getDate() == null ? null : Timestamp.from(dto.getDate()));
+					}
+
+					@Override
+					public int getBatchSize() {
+						return products.size();
+					}
+				}, keys);
+
+		List<Long> ids = new ArrayList<>(products.size());
+		List<Object[]> links = new ArrayList<>();
+		for (int i = 0; i < products.size(); i++) {
+			Long id = ((Number) keys.getKeyList().get(i).get("id")).longValue();
+			ids.add(id);
+			products.get(i).getCategories().stream().map(CategoryDTO::getId).distinct()
+					.forEach(categoryId -> links.add(new Object[] { id, categoryId }));
+		}
+		jdbcTemplate.batchUpdate(INSERT_PRODUCT_CATEGORY, links);
+		return ids;
+	}
+
+	@Override
+	@Transactional
+	public List<Long> patchBatch(List<ProductPatchDTO> patches) {
+		if (patches.isEmpty()) {
+			return new ArrayList<>();
+		}
+		List<Long> ids = patches.stream().map(ProductPatchDTO::getId).toList();
+		Set<Long> existing = new HashSet<>(namedJdbcTemplate.queryForList(
+				"SELECT id FROM tb_product WHERE id IN (:ids)", Map.of("ids", ids), Long.class));
+		List<ProductPatchDTO> found = patches.stream().filter(x -> existing.contains(x.getId())).toList();
+
+		Map<List<PatchColumn>, List<ProductPatchDTO>> byColumns = found.stream()
+				.collect(Collectors.groupingBy(PatchColumn::changedIn, LinkedHashMap::new, Collectors.toList()));
+		byColumns.forEach((columns, group) -> {
+			String sql = columns.stream().map(x -> x.column + " = ?, ")
+					.collect(Collectors.joining("", "UPDATE tb_product SET ", "version = version + 1 WHERE id = ?"));
+			jdbcTemplate.batchUpdate(sql, group, group.size(), (ps, patch) -> {
+				int index = 1;
+				for (PatchColumn column : columns) {
+					column.bind(ps, index++, patch);
+				}
+				ps.setLong(index, patch.getId());
+			});
+		});
+
+		List<ProductPatchDTO> withCategories = found.stream().filter(x -> x.getCategories() != null).toList();
+		if (!withCategories.isEmpty()) {
+			namedJdbcTemplate.update("DELETE FROM tb_product_category WHERE product_id IN (:ids)",
+					Map.of("ids", withCategories.stream().map(ProductPatchDTO::getId).toList()));
+			List<Object[]> links = new ArrayList<>();
+			for (ProductPatchDTO patch : withCategories) {
+				patch.getCategories().stream().map(CategoryDTO::getId).distinct()
+						.forEach(categoryId -> links.add(new Object[] { patch.getId(), categoryId }));
+			}
+			jdbcTemplate.batchUpdate(INSERT_PRODUCT_CATEGORY, links);
+		}
+		return found.stream().map(ProductPatchDTO::getId).toList();
+	}
+
+	private enum PatchColumn {
+		NAME("name", Types.VARCHAR, ProductPatchDTO::getName),
+		DESCRIPTION("description", Types.VARCHAR, ProductPatchDTO::getDescription),
+		PRICE("price", Types.DOUBLE, ProductPatchDTO::getPrice),
+		IMG_URL("img_url", Types.VARCHAR, ProductPatchDTO::getImgUrl),
+		DATE("date", Types.TIMESTAMP, x -> x.getDate() == null ? null : Timestamp.from(x.getDate()));
+
+		private final String column;
+		private final int sqlType;
+		private final Function<ProductPatchDTO, Object> value;
+
+		PatchColumn(String column, int sqlType, Function<ProductPatchDTO, Object> value) {
+			this.column = column;
+			this.sqlType = sqlType;
+			this.value = value;
+		}
+
+		void bind(PreparedStatement ps, int index, ProductPatchDTO patch) throws SQLException {
+			ps.setObject(index, value.apply(patch), sqlType);
+		}
+
+		static List<PatchColumn> changedIn(ProductPatchDTO patch) {
+			List<PatchColumn> columns = new ArrayList<>();
+			for (PatchColumn column : values()) {
+				if (column.value.apply(patch) != null) {
+					columns.add(column);
+				}
+			}
+			return columns;
+		}
+	}
+
+}
@@ -1,44 +1,71 @@
 package com.dscatalog.aula.repositories;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.dscatalog.aula.entities.Product;
+import com.dscatalog.aula.projections.ProductCategoryProjection;
 import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.projections.ProductRangeProjection;
+import com.dscatalog.aula.projections.ProductRow;
+import com.dscatalog.aula.projections.VersionProjection;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-
-	@Query(nativeQuery = true, value = """
-			SELECT * FROM (
-			SELECT DISTINCT tb_product.id, tb_product.name
-			FROM tb_product
-			INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
-			WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
-			AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
-			ORDER BY tb_product.name
-			) AS tb_result
-			""",
-			countQuery = """
-			SELECT COUNT(*) FROM (
-			SELECT DISTINCT tb_product.id, tb_product.name
-			FROM tb_product
-			INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
-			WHERE (:categoryIds IS NULL OR tb_product_category.category_id IN (:categoryIds))
-			AND (LOWER(tb_product.name) LIKE LOWER(CONCAT('%',:name,'%')))
-			) AS tb_result
-			""")
-		Page<ProductProjection> searchProducts(List<Long> categoryIds, String name, Pageable pageable);
-
-		@Query("SELECT obj FROM Product obj JOIN FETCH obj.categories "
-				+ "WHERE obj.id in (:productIds) ORDER BY obj.name")
-		
-		List<Product> searchProductsWithCategories(List<Long> productIds);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom, ProductBatchRepository {
+
+	String PRODUCT_ROW = "SELECT new com.dscatalog.aula.projections.ProductRow(obj.id, obj.name, obj.description, "
+			+ "obj.price, obj.imgUrl, obj.date, obj.version, cat.id, cat.name) "
+			+ "FROM Product obj LEFT JOIN obj.categories cat ";
+
+		@Query(PRODUCT_ROW + "WHERE obj.id IN (:productIds)")
+		List<ProductRow> searchProductRows(List<Long> productIds);
+
+		@Query(PRODUCT_ROW + "WHERE obj.id = :id")
+		List<ProductRow> searchProductRows(Long id);
+
+		@Query(PRODUCT_ROW + "ORDER BY obj.id")
+		List<ProductRow> searchAllProductRows();
+
+		@Query(value = "SELECT obj.id FROM Product obj", countQuery = "SELECT COUNT(obj) FROM Product obj")
+		Page<Long> searchProductIds(Pageable pageable);
+
+		@EntityGraph(Product.WITH_CATEGORIES)
+		Optional<Product> findWithCategoriesById(Long id);
+
+		@Query("SELECT obj.id AS id, obj.version AS version FROM Product obj WHERE obj.id = :id")
+		Optional<VersionProjection> searchVersion(Long id);
+
+		@Query("SELECT obj.id AS id, obj.name AS name FROM Product obj")
+		List<ProductProjection> searchProductNames();
+
+		@Query("SELECT obj.id AS id, obj.price AS price, obj.date AS date FROM Product obj ORDER BY obj.id")
+		List<ProductRangeProjection> searchProductRanges();
+
+		@Query("SELECT obj.id AS id, cat.id AS categoryId FROM Product obj JOIN obj.categories cat")
+		List<ProductCategoryProjection> searchProductCategories();
+
+		/**
+		 * Walks the whole catalog through a JDBC cursor. Must be consumed inside a
+		 * read-only transaction and closed by the caller.
+		 */
+		@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+		})
+		@Query(PRODUCT_ROW + "ORDER BY obj.id")
+		Stream<ProductRow> streamAllProductRows();
 
 	
 }
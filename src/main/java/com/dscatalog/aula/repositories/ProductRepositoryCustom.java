@@ -0,0 +1,59 @@
+package com.dscatalog.aula.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.dscatalog.aula.dto.CategoryFacetDTO;
+import com.dscatalog.aula.dto.PriceFacetDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductProjection;
+
+public interface ProductRepositoryCustom {
+
+	/**
+	 * Returns the requested page of products, with their categories and the total
+	 * number of matches, in a single statement.
+	 */
+	Page<ProductDTO> searchProductsPage(ProductSearchCriteria criteria, Pageable pageable);
+
+	/**
+	 * Same as searchProductsPage without the total: reads one row past the page
+	 * to tell whether a next page exists.
+	 */
+	Slice<ProductDTO> searchProductsSlice(ProductSearchCriteria criteria, Pageable pageable);
+
+	long countProducts(ProductSearchCriteria criteria);
+
+	/**
+	 * Ids of every product matching the criteria, in no particular order.
+	 */
+	List<Long> searchMatchingIds(ProductSearchCriteria criteria);
+
+	/**
+	 * Ids of the requested page of matching products, ordered like searchProductsPage.
+	 * The total is counted by a second statement, unless the page already tells it.
+	 */
+	Page<Long> searchMatchingIds(ProductSearchCriteria criteria, Pageable pageable);
+
+	/**
+	 * First products after the (name, id) key, ordered by name and id, for keyset paging.
+	 */
+	List<ProductProjection> searchProductsAfter(ProductSearchCriteria criteria, String afterName, Long afterId, int limit);
+
+	/**
+	 * Counts matching products per category they belong to, each product once in
+	 * each of its categories. Callers drop the category filters that should not
+	 * narrow the counts.
+	 */
+	List<CategoryFacetDTO> countByCategory(ProductSearchCriteria criteria);
+
+	/**
+	 * Counts matching products per price range. Boundaries must be ascending; the
+	 * last range is open ended.
+	 */
+	List<PriceFacetDTO> countByPriceRange(ProductSearchCriteria criteria, double[] boundaries);
+
+}
@@ -0,0 +1,390 @@
+package com.dscatalog.aula.repositories;
+
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.CategoryFacetDTO;
+import com.dscatalog.aula.dto.PriceFacetDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductProjection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+@Transactional(readOnly = true)
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+	private static final String QUERY_TIMEOUT = "jakarta.persistence.query.timeout";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${catalog.search.query-timeout-ms:5000}")
+	private int queryTimeoutMillis;
+
+	@Override
+	public Page<ProductDTO> searchProductsPage(ProductSearchCriteria criteria, Pageable pageable) {
+		Rows rows = searchRows(criteria, pageable.getSort(), pageable.getOffset(), pageable.getPageSize(), true);
+		long total = rows.total();
+		if (rows.content().isEmpty() && pageable.getOffset() > 0) {
+			total = countProducts(criteria);
+		}
+		return new PageImpl<>(rows.content(), pageable, total);
+	}
+
+	@Override
+	public Slice<ProductDTO> searchProductsSlice(ProductSearchCriteria criteria, Pageable pageable) {
+		List<ProductDTO> content = searchRows(criteria, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1,
+				false).content();
+		boolean hasNext = content.size() > pageable.getPageSize();
+		if (hasNext) {
+			content = content.subList(0, pageable.getPageSize());
+		}
+		return new SliceImpl<>(content, pageable, hasNext);
+	}
+
+	/**
+	 * Orders by the first key of the sort, then id in the same direction. Keys go
+	 * through ProductSort, so only whitelisted columns reach the SQL.
+	 */
+	private Rows searchRows(ProductSearchCriteria criteria, Sort sort, long offset, int limit, boolean withTotal) {
+		Sort.Order order = ProductSort.first(sort);
+		ProductSort key = ProductSort.of(order.getProperty());
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder sql = new StringBuilder("""
+				SELECT tb_page.id, tb_page.name, tb_product.description, tb_product.price, tb_product.img_url,
+				tb_product.date, tb_product.version, tb_category.id AS category_id, tb_category.name AS category_name,
+				tb_page.total
+				FROM (
+				""");
+		sql.append(withTotal
+				? "SELECT tb_result.id, tb_result.name, tb_result.sort_key, COUNT(*) OVER() AS total\n"
+				: "SELECT tb_result.id, tb_result.name, tb_result.sort_key, 0 AS total\n");
+		sql.append("FROM (\n");
+		appendMatchingIds(sql, params, criteria, key);
+		sql.append(") AS tb_result\n");
+		sql.append(orderBy("tb_result", order)).append('\n');
+		sql.append("""
+				LIMIT :limit OFFSET :offset
+				) AS tb_page
+				INNER JOIN tb_product ON tb_product.id = tb_page.id
+				INNER JOIN tb_product_category ON tb_product_category.product_id = tb_page.id
+				INNER JOIN tb_category ON tb_category.id = tb_product_category.category_id
+				""");
+		sql.append(orderBy("tb_page", order)).append(", tb_category.id\n");
+		params.put("limit", limit);
+		params.put("offset", offset);
+
+		List<ProductDTO> content = new ArrayList<>();
+		long total = 0;
+		ProductDTO current = null;
+		for (Object[] row : list(sql, params)) {
+			Long id = ((Number) row[0]).longValue();
+			if (current == null || !current.getId().equals(id)) {
+				current = new ProductDTO(id, (String) row[1], toText(row[2]), toDouble(row[3]), (String) row[4],
+						toInstant(row[5]));
+				current.setVersion(row[6] == null ? null : ((Number) row[6]).longValue());
+				content.add(current);
+				total = ((Number) row[9]).longValue();
+			}
+			current.getCategories().add(new CategoryDTO(((Number) row[7]).longValue(), (String) row[8]));
+		}
+		return new Rows(content, total);
+	}
+
+	@Override
+	public long countProducts(ProductSearchCriteria criteria) {
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM (\n");
+		appendMatchingIds(sql, params, criteria);
+		sql.append(") AS tb_result");
+
+		Query query = query(sql, params);
+		return ((Number) query.getSingleResult()).longValue();
+	}
+
+	@Override
+	public List<Long> searchMatchingIds(ProductSearchCriteria criteria) {
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder sql = new StringBuilder("SELECT tb_result.id FROM (\n");
+		appendMatchingIds(sql, params, criteria);
+		sql.append(") AS tb_result");
+
+		Query query = query(sql, params);
+		List<Long> result = new ArrayList<>();
+		for (Object row : query.getResultList()) {
+			result.add(((Number) row).longValue());
+		}
+		return result;
+	}
+
+	@Override
+	public Page<Long> searchMatchingIds(ProductSearchCriteria criteria, Pageable pageable) {
+		Sort.Order order = ProductSort.first(pageable.getSort());
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder sql = new StringBuilder("SELECT tb_result.id FROM (\n");
+		appendMatchingIds(sql, params, criteria, ProductSort.of(order.getProperty()));
+		sql.append(") AS tb_result\n");
+		sql.append(orderBy("tb_result", order));
+
+		Query query = query(sql, params);
+		if (pageable.isPaged()) {
+			query.setFirstResult((int) pageable.getOffset());
+			query.setMaxResults(pageable.getPageSize());
+		}
+		List<Long> ids = new ArrayList<>();
+		for (Object row : query.getResultList()) {
+			ids.add(((Number) row).longValue());
+		}
+		return PageableExecutionUtils.getPage(ids, pageable, () -> countProducts(criteria));
+	}
+
+	@Override
+	public List<ProductProjection> searchProductsAfter(ProductSearchCriteria criteria, String afterName, Long afterId,
+			int limit) {
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder sql = new StringBuilder();
+		appendMatchingIds(sql, params, criteria);
+		sql.append("""
+				AND (tb_product.name, tb_product.id) > (:afterName, :afterId)
+				ORDER BY tb_product.name, tb_product.id
+				LIMIT :limit
+				""");
+		params.put("afterName", afterName);
+		params.put("afterId", afterId);
+		params.put("limit", limit);
+
+		List<ProductProjection> result = new ArrayList<>();
+		for (Object[] row : list(sql, params)) {
+			result.add(new ProductKey(((Number) row[0]).longValue(), (String) row[1]));
+		}
+		return result;
+	}
+
+	@Override
+	public List<CategoryFacetDTO> countByCategory(ProductSearchCriteria criteria) {
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder sql = new StringBuilder("SELECT tb_category.id, tb_category.name, COUNT(*) FROM (\n");
+		appendMatchingIds(sql, params, criteria);
+		sql.append("""
+				) AS tb_result
+				INNER JOIN tb_product_category ON tb_product_category.product_id = tb_result.id
+				INNER JOIN tb_category ON tb_category.id = tb_product_category.category_id
+				GROUP BY tb_category.id, tb_category.name
+				ORDER BY tb_category.name
+				""");
+
+		List<CategoryFacetDTO> result = new ArrayList<>();
+		for (Object[] row : list(sql, params)) {
+			result.add(new CategoryFacetDTO(((Number) row[0]).longValue(), (String) row[1], ((Number) row[2]).longValue()));
+		}
+		return result;
+	}
+
+	@Override
+	public List<PriceFacetDTO> countByPriceRange(ProductSearchCriteria criteria, double[] boundaries) {
+		Map<String, Object> params = new HashMap<>();
+		StringBuilder sql = new StringBuilder("SELECT tb_bucket.bucket, COUNT(*) FROM (\nSELECT CASE\n");
+		for (int i = boundaries.length - 1; i >= 0; i--) {
+			sql.append("WHEN tb_product.price >= :boundary").append(i).append(" THEN ").append(i).append('\n');
+			params.put("boundary" + i, boundaries[i]);
+		}
+		sql.append("END AS bucket\nFROM (\n");
+		appendMatchingIds(sql, params, criteria);
+		sql.append("""
+				) AS tb_result
+				INNER JOIN tb_product ON tb_product.id = tb_result.id
+				) AS tb_bucket
+				WHERE tb_bucket.bucket IS NOT NULL
+				GROUP BY tb_bucket.bucket
+				""");
+
+		long[] counts = new long[boundaries.length];
+		for (Object[] row : list(sql, params)) {
+			counts[((Number) row[0]).intValue()] = ((Number) row[1]).longValue();
+		}
+		List<PriceFacetDTO> result = new ArrayList<>();
+		for (int i = 0; i < boundaries.length; i++) {
+			Double max = i + 1 < boundaries.length ? boundaries[i + 1] : null;
+			result.add(new PriceFacetDTO(boundaries[i], max, counts[i]));
+		}
+		return result;
+	}
+
+	/**
+	 * Appends the DISTINCT (id, name) subquery of products matching the criteria.
+	 * Only the filters that are present are rendered, so the planner never sees
+	 * "parameter IS NULL OR ..." branches.
+	 */
+	private void appendMatchingIds(StringBuilder sql, Map<String, Object> params, ProductSearchCriteria criteria) {
+		appendMatchingIds(sql, params, criteria, null);
+	}
+
+	/**
+	 * Same as above, also selecting the column of the given sort key as sort_key.
+	 */
+	private void appendMatchingIds(StringBuilder sql, Map<String, Object> params, ProductSearchCriteria criteria,
+			ProductSort sort) {
+		sql.append("SELECT DISTINCT tb_product.id, tb_product.name");
+		if (sort != null) {
+			sql.append(", tb_product.").append(sort.getProperty()).append(" AS sort_key");
+		}
+		sql.append("""
+
+				FROM tb_product
+				INNER JOIN tb_product_category ON tb_product_category.product_id = tb_product.id
+				WHERE 1 = 1
+				""");
+		if (!criteria.getCategoryIds().isEmpty() && criteria.getCategoryMode() == CategoryMode.ANY) {
+			sql.append("AND tb_product_category.category_id IN (:categoryIds)\n");
+			params.put("categoryIds", criteria.getCategoryIds());
+		}
+		if (!criteria.getCategoryIds().isEmpty() && criteria.getCategoryMode() == CategoryMode.ALL) {
+			sql.append("""
+					AND tb_product.id IN (
+					SELECT tb_all.product_id FROM tb_product_category AS tb_all
+					WHERE tb_all.category_id IN (:categoryIds)
+					GROUP BY tb_all.product_id
+					HAVING COUNT(*) = :categoryCount
+					)
+					""");
+			List<Long> categoryIds = criteria.getCategoryIds().stream().distinct().toList();
+			params.put("categoryIds", categoryIds);
+			params.put("categoryCount", categoryIds.size());
+		}
+		if (!criteria.getExcludedCategoryIds().isEmpty()) {
+			sql.append("""
+					AND NOT EXISTS (
+					SELECT 1 FROM tb_product_category AS tb_excluded
+					WHERE tb_excluded.product_id = tb_product.id
+					AND tb_excluded.category_id IN (:excludedCategoryIds)
+					)
+					""");
+			params.put("excludedCategoryIds", criteria.getExcludedCategoryIds());
+		}
+		appendProductFilters(sql, params, criteria);
+	}
+
+	/**
+	 * Appends the conditions on tb_product columns, leaving the category filter to the caller.
+	 */
+	private void appendProductFilters(StringBuilder sql, Map<String, Object> params, ProductSearchCriteria criteria) {
+		if (!criteria.getProductIds().isEmpty()) {
+			sql.append("AND tb_product.id IN (:productIds)\n");
+			params.put("productIds", criteria.getProductIds());
+		}
+		if (!criteria.getName().isEmpty()) {
+			sql.append("AND LOWER(tb_product.name) LIKE LOWER(CONCAT('%', :name, '%'))\n");
+			params.put("name", criteria.getName());
+		}
+		ProductSearchRange range = criteria.getRange();
+		if (range.minPrice() != null) {
+			sql.append("AND tb_product.price >= :minPrice\n");
+			params.put("minPrice", range.minPrice());
+		}
+		if (range.maxPrice() != null) {
+			sql.append("AND tb_product.price <= :maxPrice\n");
+			params.put("maxPrice", range.maxPrice());
+		}
+		if (range.fromDate() != null) {
+			sql.append("AND tb_product.date >= :fromDate\n");
+			params.put("fromDate", range.fromDate());
+		}
+		if (range.toDate() != null) {
+			sql.append("AND tb_product.date <= :toDate\n");
+			params.put("toDate", range.toDate());
+		}
+	}
+
+	/**
+	 * Sort key then id, in the direction of the order. Null keys sort as the
+	 * largest value, as PostgreSQL does by default; H2 would put them first.
+	 */
+	private static String orderBy(String table, Sort.Order order) {
+		String direction = order.getDirection().name();
+		String nulls = order.isAscending() ? " NULLS LAST" : " NULLS FIRST";
+		return "ORDER BY " + table + ".sort_key " + direction + nulls + ", " + table + ".id " + direction;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Object[]> list(StringBuilder sql, Map<String, Object> params) {
+		return query(sql, params).getResultList();
+	}
+
+	/**
+	 * The timeout reaches the JDBC statement, so the database stops a search that
+	 * is no longer awaited instead of holding its connection.
+	 */
+	private Query query(StringBuilder sql, Map<String, Object> params) {
+		Query query = entityManager.createNativeQuery(sql.toString());
+		query.setHint(QUERY_TIMEOUT, queryTimeoutMillis);
+		params.forEach(query::setParameter);
+		return query;
+	}
+
+	private record Rows(List<ProductDTO> content, long total) {
+	}
+
+	private record ProductKey(Long id, String name) implements ProductProjection {
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	private static Double toDouble(Object value) {
+		return value == null ? null : ((Number) value).doubleValue();
+	}
+
+	private static String toText(Object value) {
+		if (value instanceof Clob clob) {
+			try {
+				return clob.getSubString(1, (int) clob.length());
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return (String) value;
+	}
+
+	private static Instant toInstant(Object value) {
+		if (value == null || value instanceof Instant) {
+			return (Instant) value;
+		}
+		if (value instanceof Timestamp timestamp) {
+			return timestamp.toInstant();
+		}
+		if (value instanceof OffsetDateTime dateTime) {
+			return dateTime.toInstant();
+		}
+		return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.dscatalog.aula.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filters of a product search. Empty id lists and an empty range mean "no restriction".
+ */
+public class ProductSearchCriteria {
+
+	private final String name;
+	private final List<Long> categoryIds;
+	private final CategoryMode categoryMode;
+	private final List<Long> excludedCategoryIds;
+	private final List<Long> productIds;
+	private final ProductSearchRange range;
+
+	public ProductSearchCriteria(String name, List<Long> categoryIds, List<Long> productIds) {
+		this(name, categoryIds, productIds, null);
+	}
+
+	public ProductSearchCriteria(String name, List<Long> categoryIds, List<Long> productIds, ProductSearchRange range) {
+		this(name, categoryIds, null, null, productIds, range);
+	}
+
+	/**
+	 * Products are kept when they are in any (or all, per the mode) of the
+	 * category ids and in none of the excluded ones.
+	 */
+	public ProductSearchCriteria(String name, List<Long> categoryIds, CategoryMode categoryMode,
+			List<Long> excludedCategoryIds, List<Long> productIds, ProductSearchRange range) {
+		this.name = name == null ? "" : name;
+		this.categoryIds = categoryIds == null ? new ArrayList<>() : categoryIds;
+		this.categoryMode = categoryMode == null ? CategoryMode.ANY : categoryMode;
+		this.excludedCategoryIds = excludedCategoryIds == null ? new ArrayList<>() : excludedCategoryIds;
+		this.productIds = productIds == null ? new ArrayList<>() : productIds;
+		this.range = range == null ? ProductSearchRange.NONE : range;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public List<Long> getCategoryIds() {
+		return categoryIds;
+	}
+
+	public CategoryMode getCategoryMode() {
+		return categoryMode;
+	}
+
+	public List<Long> getExcludedCategoryIds() {
+		return excludedCategoryIds;
+	}
+
+	public boolean hasCategoryFilter() {
+		return !categoryIds.isEmpty() || !excludedCategoryIds.isEmpty();
+	}
+
+	public List<Long> getProductIds() {
+		return productIds;
+	}
+
+	public ProductSearchRange getRange() {
+		return range;
+	}
+
+	/**
+	 * Normalized form of the user-facing filters, for use in cache keys. Product
+	 * ids are left out since they are derived from the name and category filters.
+	 */
+	public String key() {
+		return name.toLowerCase(Locale.ROOT) + "|" + categoryIds.stream().sorted().distinct().toList() + "|" + categoryMode
+				+ "|" + excludedCategoryIds.stream().sorted().distinct().toList() + "|" + range.key();
+	}
+
+}
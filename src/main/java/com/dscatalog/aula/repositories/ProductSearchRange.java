@@ -0,0 +1,36 @@
+package com.dscatalog.aula.repositories;
+
+import java.time.Instant;
+
+/**
+ * Optional price and date bounds of a product search, all inclusive. A null
+ * bound leaves that side open.
+ */
+public record ProductSearchRange(Double minPrice, Double maxPrice, Instant fromDate, Instant toDate) {
+
+	public static final ProductSearchRange NONE = new ProductSearchRange(null, null, null, null);
+
+	public boolean isEmpty() {
+		return minPrice == null && maxPrice == null && fromDate == null && toDate == null;
+	}
+
+	public boolean isValid() {
+		return (minPrice == null || maxPrice == null || minPrice <= maxPrice)
+				&& (fromDate == null || toDate == null || !fromDate.isAfter(toDate));
+	}
+
+	public boolean contains(Double price, Instant date) {
+		return (minPrice == null || (price != null && price >= minPrice))
+				&& (maxPrice == null || (price != null && price <= maxPrice))
+				&& (fromDate == null || (date != null && !date.isBefore(fromDate)))
+				&& (toDate == null || (date != null && !date.isAfter(toDate)));
+	}
+
+	/**
+	 * Normalized form for cache keys; empty when there are no bounds.
+	 */
+	public String key() {
+		return isEmpty() ? "" : minPrice + ".." + maxPrice + "|" + fromDate + ".." + toDate;
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.dscatalog.aula.repositories;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Sort keys accepted by the product search. Each one is the leading column of
+ * an index ending in id, and id always follows as tiebreaker in the same
+ * direction, so pages are deterministic and the database can read the index in
+ * order instead of sorting every match.
+ */
+public enum ProductSort {
+
+	/** idx_product_name_id */
+	NAME("name"),
+
+	/** idx_product_price_id */
+	PRICE("price"),
+
+	/** idx_product_date_id */
+	DATE("date"),
+
+	/** primary key */
+	ID("id");
+
+	private final String property;
+
+	private ProductSort(String property) {
+		this.property = property;
+	}
+
+	public String getProperty() {
+		return property;
+	}
+
+	public Sort toSort(Direction direction) {
+		return this == ID ? Sort.by(direction, property) : Sort.by(direction, property, ID.property);
+	}
+
+	public static ProductSort of(String property) {
+		for (ProductSort sort : values()) {
+			if (sort.property.equals(property)) {
+				return sort;
+			}
+		}
+		throw new IllegalArgumentException("Invalid sort - " + property);
+	}
+
+	/**
+	 * Validates the sort of a search request and rewrites it to "key, id". Only
+	 * id may follow the key; unsorted requests are ordered by name ascending.
+	 * Invalid sorts throw IllegalArgumentException, for the service to report.
+	 */
+	public static Pageable normalize(Pageable pageable) {
+		Sort.Order first = first(pageable.getSort());
+		ProductSort key = of(first.getProperty());
+		pageable.getSort().stream().skip(1).forEach(x -> {
+			if (of(x.getProperty()) != ID) {
+				throw new IllegalArgumentException("Invalid sort - only id may follow " + key.property);
+			}
+		});
+		Sort sort = key.toSort(first.getDirection());
+		return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+				: Pageable.unpaged(sort);
+	}
+
+	/**
+	 * First order of the sort, name ascending when unsorted.
+	 */
+	public static Sort.Order first(Sort sort) {
+		return sort.isSorted() ? sort.iterator().next() : Sort.Order.asc(NAME.property);
+	}
+
+}
@@ -0,0 +1,13 @@
+package com.dscatalog.aula.repositories;
+
+/**
+ * Second-level cache region shared by the cacheable category and role queries.
+ */
+public final class ReferenceQueries {
+
+	public static final String CACHE_REGION = "reference-queries";
+
+	private ReferenceQueries() {
+	}
+
+}
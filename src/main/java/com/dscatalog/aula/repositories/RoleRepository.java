@@ -1,13 +1,20 @@
 package com.dscatalog.aula.repositories;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.dscatalog.aula.entities.Role;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ReferenceQueries.CACHE_REGION) })
     Role findByAuthority(String authority);
 
 }
@@ -2,18 +2,40 @@ package com.dscatalog.aula.repositories;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.dscatalog.aula.entities.User;
 import com.dscatalog.aula.projections.UserDetailsProjection;
+import com.dscatalog.aula.projections.UserRow;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
 	User findByEmail(String email);
 
+	@EntityGraph(User.WITH_ROLES)
+	User findWithRolesByEmail(String email);
+
+	String USER_ROW = "SELECT new com.dscatalog.aula.projections.UserRow(obj.id, obj.firstName, obj.lastName, "
+			+ "obj.email, role.id, role.authority) FROM User obj LEFT JOIN obj.roles role ";
+
+	@Query(USER_ROW + "WHERE obj.id IN (:userIds)")
+	List<UserRow> searchUserRows(List<Long> userIds);
+
+	@Query(USER_ROW + "WHERE obj.id = :id")
+	List<UserRow> searchUserRows(Long id);
+
+	@Query(USER_ROW + "ORDER BY obj.id")
+	List<UserRow> searchAllUserRows();
+
+	@Query(value = "SELECT obj.id FROM User obj", countQuery = "SELECT COUNT(obj) FROM User obj")
+	Page<Long> searchUserIds(Pageable pageable);
+
 	@Query(nativeQuery = true, value = """
 				SELECT tb_user.email AS username, tb_user.password, tb_role.id AS roleId, tb_role.authority
 				FROM tb_user
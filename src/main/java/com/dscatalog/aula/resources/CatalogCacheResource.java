@@ -0,0 +1,25 @@
+package com.dscatalog.aula.resources;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dscatalog.aula.services.CatalogStatsService;
+
+@RestController
+@RequestMapping(value = "/catalog/cache")
+public class CatalogCacheResource {
+
+	@Autowired
+	private CatalogStatsService service;
+	
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+	@DeleteMapping(value = "/reference")
+	public ResponseEntity<Void> evictReferenceData() {
+		service.evictReferenceData();
+		return ResponseEntity.noContent().build();
+	}
+}
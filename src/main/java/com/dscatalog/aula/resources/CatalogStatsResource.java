@@ -0,0 +1,26 @@
+package com.dscatalog.aula.resources;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dscatalog.aula.dto.CatalogStatsDTO;
+import com.dscatalog.aula.services.CatalogStatsService;
+
+@RestController
+@RequestMapping(value = "/catalog/stats")
+public class CatalogStatsResource {
+
+	@Autowired
+	private CatalogStatsService service;
+	
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+	@GetMapping()
+	public ResponseEntity<CatalogStatsDTO> getStats() {
+		CatalogStatsDTO dto = service.getStats();
+		return ResponseEntity.ok().body(dto);
+	}
+}
@@ -3,6 +3,7 @@ import java.net.URI;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,10 +14,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.dscatalog.aula.dto.CategoryDTO;
 import com.dscatalog.aula.services.CategoryService;
+import com.dscatalog.aula.utils.ETags;
 
 @RestController
 @RequestMapping(value = "/categories")
@@ -25,16 +28,32 @@ public class CategoryResource {
 	@Autowired
 	private CategoryService service;
 	
+	/**
+	 * Served from the stale-while-revalidate cache; the tag is computed from the
+	 * versions of the listing served, so it always matches the body.
+	 */
 	@GetMapping()
-	public ResponseEntity<List<CategoryDTO>> findAll() {
+	public ResponseEntity<List<CategoryDTO>> findAll(WebRequest request) {
 		List<CategoryDTO> list = service.findAll();
-		return ResponseEntity.ok().body(list);
+		String etag = ETags.of(list);
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(service.listingCacheControl())
+					.build();
+		}
+		return ResponseEntity.ok().eTag(etag).cacheControl(service.listingCacheControl()).body(list);
 	}
 	
+	/**
+	 * The version is read first, so a 304 never loads the category.
+	 */
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id) {
+	public ResponseEntity<CategoryDTO> findById(@PathVariable Long id, WebRequest request) {
+		String etag = ETags.of(service.findVersion(id));
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
 		CategoryDTO dto =  service.findById(id);
-		return ResponseEntity.ok().body(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 	
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
@@ -1,24 +1,44 @@
 package com.dscatalog.aula.resources;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.Instant;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.dscatalog.aula.dto.BulkImportResultDTO;
+import com.dscatalog.aula.dto.BulkPatchResultDTO;
+import com.dscatalog.aula.dto.CursorPageDTO;
 import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.dto.ProductSearchResultDTO;
+import com.dscatalog.aula.repositories.ProductSearchRange;
+import com.dscatalog.aula.services.ProductBulkService;
 import com.dscatalog.aula.services.ProductService;
+import com.dscatalog.aula.services.export.ExportFormat;
+import com.dscatalog.aula.services.search.CountMode;
+import com.dscatalog.aula.services.search.Facet;
+import com.dscatalog.aula.utils.ETags;
 
 import jakarta.validation.Valid;
 
@@ -29,25 +49,124 @@ public class ProductResource {
 	@Autowired
 	private ProductService service;
 	
-	@GetMapping()
-	public ResponseEntity<Page<ProductDTO>> searchAll(
+	@Autowired
+	private ProductBulkService bulkService;
+	
+	/**
+	 * The search modes below exclude each other: a request asking for more than
+	 * one of facets, fuzzy=true and after matches no handler and gets a 400.
+	 */
+	@GetMapping(params = { "!facets", "fuzzy!=true", "!after" })
+	public ResponseEntity<Slice<ProductDTO>> searchAll(
+			@RequestParam(defaultValue = "") String name,
+			@RequestParam(defaultValue = "0") String categoryId,
+			@RequestParam(required = false) Double minPrice,
+			@RequestParam(required = false) Double maxPrice,
+			@RequestParam(required = false) Instant fromDate,
+			@RequestParam(required = false) Instant toDate,
+			@RequestParam(defaultValue = "any") String categoryMode,
+			@RequestParam(defaultValue = "0") String excludeCategoryId,
+			@RequestParam(defaultValue = "exact") String count,
+			Pageable pageable) {
+		ProductSearchRange range = new ProductSearchRange(minPrice, maxPrice, fromDate, toDate);
+		Slice<ProductDTO> list = service.searchAll(name, categoryId, categoryMode, excludeCategoryId,
+				range, CountMode.from(count), pageable);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(params = { "facets", "fuzzy!=true", "!after" })
+	public ResponseEntity<ProductSearchResultDTO> searchWithFacets(
+			@RequestParam(defaultValue = "") String name,
+			@RequestParam(defaultValue = "0") String categoryId,
+			@RequestParam(required = false) Double minPrice,
+			@RequestParam(required = false) Double maxPrice,
+			@RequestParam(required = false) Instant fromDate,
+			@RequestParam(required = false) Instant toDate,
+			@RequestParam(defaultValue = "any") String categoryMode,
+			@RequestParam(defaultValue = "0") String excludeCategoryId,
+			@RequestParam(defaultValue = "exact") String count,
+			@RequestParam String facets,
+			Pageable pageable) {
+		ProductSearchRange range = new ProductSearchRange(minPrice, maxPrice, fromDate, toDate);
+		ProductSearchResultDTO result = service.searchWithFacets(name, categoryId, categoryMode,
+				excludeCategoryId, range, CountMode.from(count), Facet.parse(facets), pageable);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@GetMapping(params = { "fuzzy=true", "!facets", "!after" })
+	public ResponseEntity<Slice<ProductDTO>> searchFuzzy(
+			@RequestParam(defaultValue = "") String name,
+			@RequestParam(defaultValue = "0") String categoryId,
+			@RequestParam(required = false) Double minPrice,
+			@RequestParam(required = false) Double maxPrice,
+			@RequestParam(required = false) Instant fromDate,
+			@RequestParam(required = false) Instant toDate,
+			@RequestParam(defaultValue = "any") String categoryMode,
+			@RequestParam(defaultValue = "0") String excludeCategoryId,
+			@RequestParam(defaultValue = "exact") String count,
+			Pageable pageable) {
+		ProductSearchRange range = new ProductSearchRange(minPrice, maxPrice, fromDate, toDate);
+		Slice<ProductDTO> list = service.searchFuzzy(name, categoryId, categoryMode, excludeCategoryId, range,
+				CountMode.from(count), pageable);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(params = { "after", "!facets", "fuzzy!=true" })
+	public ResponseEntity<CursorPageDTO<ProductDTO>> searchAfter(
 			@RequestParam(defaultValue = "") String name,
 			@RequestParam(defaultValue = "0") String categoryId,
+			@RequestParam(required = false) Double minPrice,
+			@RequestParam(required = false) Double maxPrice,
+			@RequestParam(required = false) Instant fromDate,
+			@RequestParam(required = false) Instant toDate,
+			@RequestParam(defaultValue = "any") String categoryMode,
+			@RequestParam(defaultValue = "0") String excludeCategoryId,
+			@RequestParam String after,
 			Pageable pageable) {
-		Page<ProductDTO> list = service.searchAll(name, categoryId, pageable);
+		ProductSearchRange range = new ProductSearchRange(minPrice, maxPrice, fromDate, toDate);
+		CursorPageDTO<ProductDTO> list = service.searchAfter(name, categoryId, categoryMode, excludeCategoryId, range,
+				after, pageable.getPageSize());
 		return ResponseEntity.ok().body(list);
 	}
 	
+	@GetMapping(value = "/suggest")
+	public ResponseEntity<List<String>> suggest(
+			@RequestParam(defaultValue = "") String prefix,
+			@RequestParam(defaultValue = "10") int limit) {
+		List<String> list = service.suggest(prefix, limit);
+		return ResponseEntity.ok().body(list);
+	}
+	
+	@GetMapping(value = "/export")
+	public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+		ExportFormat exportFormat = ExportFormat.from(format);
+		StreamingResponseBody body = out -> service.export(exportFormat, out);
+		return ResponseEntity.ok()
+				.contentType(exportFormat.getMediaType())
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+				.body(body);
+	}
+	
 //	@GetMapping()
 	//	public ResponseEntity<Page<ProductDTO>> findAll(Pageable pageable) {
 	//		Page<ProductDTO> list = service.findAllPaged(pageable);
 	//		return ResponseEntity.ok().body(list);
 	//	}
 	
+	/**
+	 * The version is read first, so a 304 never loads the product; If-None-Match
+	 * is compared by Spring, weak tags and lists included. Views are counted once
+	 * the product is found, 304s included.
+	 */
 	@GetMapping(value = "/{id}")
-	public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
+	public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+		String etag = ETags.of(service.findVersion(id));
+		service.recordView(id);
+		if (request.checkNotModified(etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		}
 		ProductDTO dto =  service.findById(id);
-		return ResponseEntity.ok().body(dto);
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 	
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
@@ -60,11 +179,26 @@ public class ProductResource {
 		return ResponseEntity.created(uri).body(dto);
 	}
 	
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+	@PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+	public ResponseEntity<BulkImportResultDTO> insertAll(InputStream body) {
+		BulkImportResultDTO result = bulkService.insertAll(body);
+		return ResponseEntity.ok().body(result);
+	}
+	
+	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
+	@PatchMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+	public ResponseEntity<BulkPatchResultDTO> updateAll(InputStream body) {
+		BulkPatchResultDTO result = bulkService.updateAll(body);
+		return ResponseEntity.ok().body(result);
+	}
+	
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
 	@PutMapping(value = "/{id}")
-	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto) {
-		dto = service.update(id, dto);
-		return ResponseEntity.ok().body(dto);
+	public ResponseEntity<ProductDTO> update(@PathVariable Long id, @Valid @RequestBody ProductDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		dto = service.update(id, dto, ETags.expectedVersion(ifMatch));
+		return ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto);
 	}
 	
 	@PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_OPERATOR')")
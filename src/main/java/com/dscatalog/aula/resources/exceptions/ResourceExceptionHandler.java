@@ -3,6 +3,8 @@ package com.dscatalog.aula.resources.exceptions;
 import java.time.Instant;
 
 import com.dscatalog.aula.services.exceptions.EmailException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -10,8 +12,11 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.dscatalog.aula.services.exceptions.BadRequestException;
 import com.dscatalog.aula.services.exceptions.DatabaseException;
+import com.dscatalog.aula.services.exceptions.PreconditionFailedException;
 import com.dscatalog.aula.services.exceptions.ResourceNotFoundException;
+import com.dscatalog.aula.services.exceptions.SearchTimeoutException;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -42,6 +47,54 @@ public class ResourceExceptionHandler {
 		return ResponseEntity.status(status).body(err);
 	}
 	
+	@ExceptionHandler(BadRequestException.class)
+	public ResponseEntity<StandardError> badRequest(BadRequestException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.BAD_REQUEST;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Bad request");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+	
+	@ExceptionHandler(PreconditionFailedException.class)
+	public ResponseEntity<StandardError> preconditionFailed(PreconditionFailedException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.PRECONDITION_FAILED;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Precondition failed");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+	
+	@ExceptionHandler({ SearchTimeoutException.class, QueryTimeoutException.class })
+	public ResponseEntity<StandardError> searchTimeout(RuntimeException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Search timeout");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+	
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<StandardError> conflict(OptimisticLockingFailureException e, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.CONFLICT;
+		StandardError err = new StandardError();
+		err.setTimestamp(Instant.now());
+		err.setStatus(status.value());
+		err.setError("Concurrent modification");
+		err.setMessage(e.getMessage());
+		err.setPath(request.getRequestURI());
+		return ResponseEntity.status(status).body(err);
+	}
+	
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<ValidationError> validation(MethodArgumentNotValidException e, HttpServletRequest request) {
 		HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY;
@@ -0,0 +1,46 @@
+package com.dscatalog.aula.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.dscatalog.aula.dto.CatalogStatsDTO;
+import com.dscatalog.aula.services.cache.CategoryListingCache;
+import com.dscatalog.aula.services.cache.ReferenceDataCache;
+import com.dscatalog.aula.services.cache.SingleFlight;
+import com.dscatalog.aula.services.events.CategoryChangedEvent;
+import com.dscatalog.aula.services.search.CatalogVersion;
+import com.dscatalog.aula.services.search.SearchResultCache;
+
+@Service
+public class CatalogStatsService {
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+	
+	@Autowired
+	private SearchResultCache resultCache;
+	
+	@Autowired
+	private ReferenceDataCache referenceDataCache;
+	
+	@Autowired
+	private CategoryListingCache categoryListingCache;
+	
+	@Autowired
+	private SingleFlight singleFlight;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	public CatalogStatsDTO getStats() {
+		return new CatalogStatsDTO(catalogVersion.get(), resultCache.stats(), categoryListingCache.stats(),
+				referenceDataCache.stats(), singleFlight.stats());
+	}
+
+	public void evictReferenceData() {
+		referenceDataCache.evictAll();
+		// cached search pages and category listings embed category names, so retire them with the regions
+		eventPublisher.publishEvent(new CategoryChangedEvent(null));
+	}
+}
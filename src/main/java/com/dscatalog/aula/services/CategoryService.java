@@ -2,21 +2,27 @@ package com.dscatalog.aula.services;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.dscatalog.aula.dto.CategoryDTO;
 import com.dscatalog.aula.entities.Category;
+import com.dscatalog.aula.projections.VersionProjection;
 import com.dscatalog.aula.repositories.CategoryRepository;
+import com.dscatalog.aula.services.cache.CategoryListingCache;
+import com.dscatalog.aula.services.cache.SingleFlight;
+import com.dscatalog.aula.services.events.CategoryChangedEvent;
 import com.dscatalog.aula.services.exceptions.DatabaseException;
 import com.dscatalog.aula.services.exceptions.ResourceNotFoundException;
+import com.dscatalog.aula.services.search.CatalogVersion;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -26,23 +32,50 @@ public class CategoryService {
 	@Autowired 
 	private CategoryRepository repository;
 	
-	@Transactional(readOnly = true)
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	private SingleFlight singleFlight;
+	
+	@Autowired
+	private CatalogVersion catalogVersion;
+	
+	@Autowired
+	private CategoryListingCache listingCache;
+	
+	/**
+	 * Not transactional: cached listings are served without a connection, and
+	 * concurrent misses wait for one query without holding one. The repository
+	 * call opens its own read-only transaction. The cached DTOs are shared, so
+	 * every caller gets copies.
+	 */
 	public List<CategoryDTO> findAll() {
-		List<Category> list = repository.findAll();
-		return list.stream().map(x -> new CategoryDTO(x)).collect(Collectors.toList());
+		List<CategoryDTO> list = listingCache.get("all", () -> singleFlight.execute("categories.findAll",
+				catalogVersion.get(), repository::searchAllCategoryDTOs));
+		return list.stream().map(CategoryDTO::new).toList();
 	}
 	
 	@Transactional(readOnly = true)
 	public Page<CategoryDTO> findAllPaged(Pageable pageable) {
-		Page<Category> list = repository.findAll(pageable);
-		return list.map(x -> new CategoryDTO(x));
+		return repository.searchAllCategoryDTOs(pageable);
+	}
+	
+	public CacheControl listingCacheControl() {
+		return listingCache.cacheControl();
 	}
 	
 	@Transactional(readOnly = true)
 	public CategoryDTO findById(Long id) {
-		Optional<Category> entity = repository.findById(id);
-		Category cat = entity.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
-		return new CategoryDTO(cat);
+		Optional<CategoryDTO> dto = repository.searchCategoryDTO(id);
+		return dto.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
+	}
+
+	@Transactional(readOnly = true)
+	public Long findVersion(Long id) {
+		VersionProjection version = repository.searchVersion(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
+		return version.getVersion();
 	}
 
 	@Transactional
@@ -51,6 +84,7 @@ public class CategoryService {
 		entity.setName(dto.getName());
 		
 		entity = repository.save(entity);
+		eventPublisher.publishEvent(new CategoryChangedEvent(entity.getId()));
 		return new CategoryDTO(entity);
 	}
 
@@ -60,6 +94,7 @@ public class CategoryService {
 			Category entity = repository.getReferenceById(id);
 			entity.setName(dto.getName());
 			entity = repository.save(entity);
+			eventPublisher.publishEvent(new CategoryChangedEvent(id));
 			return new CategoryDTO(entity);
 		} catch (EntityNotFoundException e) {
 			throw new ResourceNotFoundException("Id not found - " + id);
@@ -72,7 +107,8 @@ public class CategoryService {
 			throw new ResourceNotFoundException("Id not found - " + id);
 		}
 		try {
-			repository.deleteById(id);    		
+			repository.deleteById(id);
+			eventPublisher.publishEvent(new CategoryChangedEvent(id));
 		}
 	    	catch (DataIntegrityViolationException e) {
 	        	throw new DatabaseException("Entegrity Violation");
@@ -0,0 +1,196 @@
+package com.dscatalog.aula.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.dscatalog.aula.dto.BulkImportResultDTO;
+import com.dscatalog.aula.dto.BulkPatchResultDTO;
+import com.dscatalog.aula.dto.BulkRowErrorDTO;
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.dto.ProductPatchDTO;
+import com.dscatalog.aula.entities.Category;
+import com.dscatalog.aula.repositories.CategoryRepository;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validator;
+
+/**
+ * Bulk writes that skip the per-entity path of ProductService. Rows are handled
+ * in chunks of catalog.bulk.batch-size, each chunk in its own transaction.
+ */
+@Service
+public class ProductBulkService {
+
+	@Autowired
+	private ProductRepository repository;
+	
+	@Autowired
+	private CategoryRepository categoryRepository;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	private Validator validator;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Value("${catalog.bulk.batch-size:1000}")
+	private int batchSize;
+	
+	/**
+	 * Reads a JSON array or newline-delimited JSON of products without buffering the
+	 * body. Invalid rows are reported and skipped; a malformed row stops the import
+	 * after the chunks already written.
+	 */
+	public BulkImportResultDTO insertAll(InputStream body) {
+		Set<Long> categoryIds = findCategoryIds();
+		List<BulkRowErrorDTO> errors = new ArrayList<>();
+		Totals totals = readInChunks(body, ProductDTO.class, errors,
+				(chunk, firstRow) -> insertChunk(chunk, firstRow, categoryIds, errors));
+		return new BulkImportResultDTO(totals.received(), totals.written(), errors);
+	}
+	
+	/**
+	 * Applies sparse changes read like insertAll. Ids repeated within one request
+	 * and patches with nothing but an id are rejected, so they are neither counted
+	 * nor published; ids that do not exist are listed as not found.
+	 */
+	public BulkPatchResultDTO updateAll(InputStream body) {
+		Set<Long> categoryIds = findCategoryIds();
+		Set<Long> seenIds = new HashSet<>();
+		List<Long> notFound = new ArrayList<>();
+		List<BulkRowErrorDTO> errors = new ArrayList<>();
+		Totals totals = readInChunks(body, ProductPatchDTO.class, errors,
+				(chunk, firstRow) -> updateChunk(chunk, firstRow, categoryIds, seenIds, notFound, errors));
+		return new BulkPatchResultDTO(totals.received(), totals.written(), notFound, errors);
+	}
+	
+	private <T> Totals readInChunks(InputStream body, Class<T> type, List<BulkRowErrorDTO> errors, ChunkWriter<T> writer) {
+		List<T> chunk = new ArrayList<>(batchSize);
+		long received = 0;
+		long written = 0;
+
+		try (MappingIterator<T> it = objectMapper.readerFor(type).readValues(body)) {
+			while (it.hasNextValue()) {
+				chunk.add(it.nextValue());
+				if (chunk.size() == batchSize) {
+					written += writer.write(chunk, received);
+					received += chunk.size();
+					chunk.clear();
+				}
+			}
+		} catch (JsonProcessingException e) {
+			errors.add(new BulkRowErrorDTO(received + chunk.size(), List.of("Malformed row - " + e.getOriginalMessage())));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (!chunk.isEmpty()) {
+			written += writer.write(chunk, received);
+			received += chunk.size();
+		}
+		return new Totals(received, written);
+	}
+	
+	private long insertChunk(List<ProductDTO> chunk, long firstRow, Set<Long> categoryIds, List<BulkRowErrorDTO> errors) {
+		List<List<String>> violations = chunk.parallelStream().map(x -> validate(x, x.getCategories(), categoryIds)).toList();
+		List<ProductDTO> valid = new ArrayList<>(chunk.size());
+		for (int i = 0; i < chunk.size(); i++) {
+			if (violations.get(i).isEmpty()) {
+				valid.add(chunk.get(i));
+			} else {
+				errors.add(new BulkRowErrorDTO(firstRow + i, violations.get(i)));
+			}
+		}
+		if (valid.isEmpty()) {
+			return 0;
+		}
+		
+		List<Long> ids = repository.insertBatch(valid);
+		for (int i = 0; i < valid.size(); i++) {
+			ProductDTO dto = valid.get(i);
+			dto.setId(ids.get(i));
+			eventPublisher.publishEvent(new ProductChangedEvent(dto.getId(), dto));
+		}
+		return valid.size();
+	}
+	
+	private long updateChunk(List<ProductPatchDTO> chunk, long firstRow, Set<Long> categoryIds, Set<Long> seenIds,
+			List<Long> notFound, List<BulkRowErrorDTO> errors) {
+		List<List<String>> violations = chunk.parallelStream().map(x -> validate(x, x.getCategories(), categoryIds)).toList();
+		List<ProductPatchDTO> valid = new ArrayList<>(chunk.size());
+		for (int i = 0; i < chunk.size(); i++) {
+			ProductPatchDTO patch = chunk.get(i);
+			if (!violations.get(i).isEmpty()) {
+				errors.add(new BulkRowErrorDTO(firstRow + i, violations.get(i)));
+			} else if (!seenIds.add(patch.getId())) {
+				errors.add(new BulkRowErrorDTO(firstRow + i, List.of("id: Duplicated id - " + patch.getId())));
+			} else if (!patch.hasChanges()) {
+				errors.add(new BulkRowErrorDTO(firstRow + i, List.of("id: Nothing to update - " + patch.getId())));
+			} else {
+				valid.add(patch);
+			}
+		}
+		if (valid.isEmpty()) {
+			return 0;
+		}
+		
+		Set<Long> updated = new HashSet<>(repository.patchBatch(valid));
+		for (ProductPatchDTO patch : valid) {
+			if (!updated.contains(patch.getId())) {
+				notFound.add(patch.getId());
+				continue;
+			}
+			ProductDTO changes = new ProductDTO(patch.getId(), patch.getName(), patch.getDescription(),
+					patch.getPrice(), patch.getImgUrl(), patch.getDate());
+			if (patch.getCategories() != null) {
+				changes.getCategories().addAll(patch.getCategories());
+			}
+			eventPublisher.publishEvent(ProductChangedEvent.patched(patch.getId(), changes, patch.getCategories() != null));
+		}
+		return updated.size();
+	}
+	
+	private Set<Long> findCategoryIds() {
+		return categoryRepository.findAll().stream().map(Category::getId).collect(Collectors.toSet());
+	}
+	
+	private List<String> validate(Object dto, List<CategoryDTO> categories, Set<Long> categoryIds) {
+		List<String> messages = new ArrayList<>();
+		validator.validate(dto).forEach(x -> messages.add(x.getPropertyPath() + ": " + x.getMessage()));
+		if (categories != null) {
+			for (CategoryDTO category : categories) {
+				if (category.getId() == null || !categoryIds.contains(category.getId())) {
+					messages.add("categories: Category not found - " + category.getId());
+				}
+			}
+		}
+		return messages;
+	}
+	
+	private record Totals(long received, long written) {
+	}
+	
+	@FunctionalInterface
+	private interface ChunkWriter<T> {
+		long write(List<T> chunk, long firstRow);
+	}
+	
+}
@@ -1,31 +1,75 @@
 package com.dscatalog.aula.services;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.CategoryFacetDTO;
+import com.dscatalog.aula.dto.CursorPageDTO;
+import com.dscatalog.aula.dto.PriceFacetDTO;
 import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.dto.ProductSearchResultDTO;
 import com.dscatalog.aula.entities.Category;
 import com.dscatalog.aula.entities.Product;
 import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.projections.ProductRow;
+import com.dscatalog.aula.projections.VersionProjection;
 import com.dscatalog.aula.repositories.CategoryRepository;
 import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.repositories.ProductSearchCriteria;
+import com.dscatalog.aula.repositories.ProductSearchRange;
+import com.dscatalog.aula.services.cache.SingleFlight;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+import com.dscatalog.aula.services.exceptions.BadRequestException;
 import com.dscatalog.aula.services.exceptions.DatabaseException;
+import com.dscatalog.aula.services.exceptions.PreconditionFailedException;
 import com.dscatalog.aula.services.exceptions.ResourceNotFoundException;
-import com.dscatalog.aula.utils.Utils;
-
-import jakarta.persistence.EntityNotFoundException;
+import com.dscatalog.aula.services.export.ExportFormat;
+import com.dscatalog.aula.services.export.ProductExportWriter;
+import com.dscatalog.aula.services.search.CatalogSnapshot;
+import com.dscatalog.aula.services.search.CatalogSnapshotStore;
+import com.dscatalog.aula.services.search.CatalogVersion;
+import com.dscatalog.aula.repositories.CategoryMode;
+import com.dscatalog.aula.services.search.ConcurrentSearch;
+import com.dscatalog.aula.services.search.CountMode;
+import com.dscatalog.aula.services.search.Facet;
+import com.dscatalog.aula.services.search.FuzzyTermIndex;
+import com.dscatalog.aula.services.search.ProductCategoryIndex;
+import com.dscatalog.aula.services.search.ProductCursor;
+import com.dscatalog.aula.services.search.ProductNameIndex;
+import com.dscatalog.aula.services.search.ProductRangeIndex;
+import com.dscatalog.aula.repositories.ProductSort;
+import com.dscatalog.aula.services.search.ProductSuggestIndex;
+import com.dscatalog.aula.services.search.SearchCountCache;
+import com.dscatalog.aula.services.search.SearchEngine;
+import com.dscatalog.aula.services.search.SearchResultCache;
+import com.dscatalog.aula.utils.IdJoin;
+import com.dscatalog.aula.utils.RoaringBitmap;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class ProductService {
@@ -36,23 +80,136 @@ public class ProductService {
 	@Autowired 
 	private CategoryRepository categoryRepository;
 	
+	@Autowired
+	private CategoryService categoryService;
+	
+	@Autowired
+	private ProductNameIndex nameIndex;
+	
+	@Autowired
+	private FuzzyTermIndex fuzzyIndex;
+	
+	@Autowired
+	private ProductSuggestIndex suggestIndex;
+	
+	@Autowired
+	private ProductCategoryIndex categoryIndex;
+	
+	@Autowired
+	private ProductRangeIndex rangeIndex;
+	
+	@Autowired
+	private SearchCountCache countCache;
+	
+	@Autowired
+	private SearchResultCache resultCache;
+	
+	@Autowired
+	private CatalogVersion catalogVersion;
+	
+	@Autowired
+	private ConcurrentSearch concurrentSearch;
+	
+	@Autowired
+	private SingleFlight singleFlight;
+	
+	@Autowired
+	private CatalogSnapshotStore snapshotStore;
+	
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	@Value("${catalog.search.max-candidates:1000}")
+	private int maxCandidates;
+	
+	@Value("${catalog.search.engine:window}")
+	private SearchEngine searchEngine;
+	
+	@Value("${catalog.search.facets.price-ranges:0,100,500,1000,2000}")
+	private double[] priceRanges;
+	
+	@Value("${catalog.export.flush-rows:500}")
+	private int exportFlushRows;
+	
 	@Transactional(readOnly = true)
 	public List<ProductDTO> findAll() {
-		List<Product> list = repository.findAll();
-		return list.stream().map(x -> new ProductDTO(x)).collect(Collectors.toList());
+		return ProductDTO.fromRows(repository.searchAllProductRows());
 	}
 	
 	@Transactional(readOnly = true)
 	public Page<ProductDTO> findAllPaged(Pageable pageable) {
-		Page<Product> list = repository.findAll(pageable);
-		return list.map(x -> new ProductDTO(x, x.getCategories()));
+		Page<Long> ids = repository.searchProductIds(pageable);
+		List<ProductDTO> list = ProductDTO.fromRows(repository.searchProductRows(ids.getContent()));
+		return new PageImpl<>(IdJoin.joinIds(ids.getContent(), list), ids.getPageable(), ids.getTotalElements());
 	}
 	
-	@Transactional(readOnly = true)
+	/**
+	 * Not transactional, like searchAll: in snapshot mode no connection is taken,
+	 * and concurrent lookups of the same id wait for one query without holding one,
+	 * each getting its own copy of the result.
+	 */
 	public ProductDTO findById(Long id) {
-		Optional<Product> entity = repository.findById(id);
-		Product prod = entity.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
-		return new ProductDTO(prod, prod.getCategories());
+		CatalogSnapshot snapshot = snapshotStore.current();
+		if (snapshot != null) {
+			ProductDTO dto = snapshot.findById(id);
+			if (dto == null) {
+				throw new ResourceNotFoundException("Entity not Found");
+			}
+			return dto;
+		}
+		return new ProductDTO(singleFlight.execute("products.findById", List.of(catalogVersion.get(), id), () -> {
+			List<ProductDTO> list = ProductDTO.fromRows(repository.searchProductRows(id));
+			if (list.isEmpty()) {
+				throw new ResourceNotFoundException("Entity not Found");
+			}
+			return list.get(0);
+		}));
+	}
+
+	/**
+	 * Version of the product, so a conditional GET can be answered before the
+	 * product is loaded. Read from the snapshot when there is one.
+	 */
+	public Long findVersion(Long id) {
+		CatalogSnapshot snapshot = snapshotStore.current();
+		VersionProjection version = snapshot != null ? snapshot.findVersion(id)
+				: repository.searchVersion(id).orElse(null);
+		if (version == null) {
+			throw new ResourceNotFoundException("Entity not Found");
+		}
+		return version.getVersion();
+	}
+
+	/**
+	 * Counts a detail view of an existing product towards the suggestion weights.
+	 */
+	public void recordView(Long id) {
+		suggestIndex.recordView(id);
+	}
+
+	/**
+	 * Streams the whole catalog from a database cursor to the output. Rows arrive
+	 * grouped by product, so each product is written as soon as its last category
+	 * is read and memory does not grow with the catalog.
+	 */
+	@Transactional(readOnly = true)
+	public void export(ExportFormat format, OutputStream out) throws IOException {
+		ProductExportWriter writer = format.newWriter(out, objectMapper);
+		writer.begin();
+		try (Stream<ProductRow> stream = repository.streamAllProductRows()) {
+			Iterator<ProductDTO> it = ProductDTO.fromGroupedRows(stream.iterator());
+			int rows = 0;
+			while (it.hasNext()) {
+				writer.write(it.next());
+				if (++rows % exportFlushRows == 0) {
+					writer.flush();
+				}
+			}
+		}
+		writer.flush();
 	}
 
 	@Transactional
@@ -61,25 +218,40 @@ public class ProductService {
 		copyDtoToEntity(dto, entity);
 		
 		entity = repository.save(entity);
-		return new ProductDTO(entity);
+		ProductDTO result = new ProductDTO(entity, entity.getCategories());
+		eventPublisher.publishEvent(new ProductChangedEvent(result.getId(), result));
+		return result;
 	}
 
 	@Transactional
 	public ProductDTO update(Long id, ProductDTO dto) {
-		try {
-			Product entity = repository.getReferenceById(id);
-			copyDtoToEntity(dto, entity);
-			entity = repository.save(entity);
-			return new ProductDTO(entity);
-		} catch (EntityNotFoundException e) {
-			throw new ResourceNotFoundException("Id not found - " + id);
+		return update(id, dto, null);
+	}
+
+	/**
+	 * Updates the product only if it is still at the expected version (null skips
+	 * the check). The returned DTO carries the version after the write.
+	 */
+	@Transactional
+	public ProductDTO update(Long id, ProductDTO dto, Long expectedVersion) {
+		Product entity = repository.findWithCategoriesById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Id not found - " + id));
+		if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+			throw new PreconditionFailedException("Version mismatch - " + id);
 		}
+		copyDtoToEntity(dto, entity);
+		entity = repository.save(entity);
+		repository.flush();
+		ProductDTO result = new ProductDTO(entity, entity.getCategories());
+		eventPublisher.publishEvent(new ProductChangedEvent(id, result));
+		return result;
 	}
 
 	@Transactional(propagation = Propagation.SUPPORTS)
 	public void delete(Long id) {
 		try {
 			repository.deleteById(id);
+			eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
 		}
 	    	catch (DataIntegrityViolationException e) {
 	        	throw new DatabaseException("Entegrity Violation");
@@ -100,25 +272,413 @@ public class ProductService {
 		}
 	}
 	
-	@SuppressWarnings("unchecked")
+	public Slice<ProductDTO> searchAll(String name, String categoryId, ProductSearchRange range, CountMode countMode,
+			Pageable pageble){
+		return searchAll(name, categoryId, "any", "0", range, countMode, pageble);
+	}
+	
+	/**
+	 * Not transactional on purpose: cache hits must not borrow a connection.
+	 * The repository calls below open their own read-only transactions.
+	 * The sort is checked against ProductSort first. In snapshot mode, name-ordered
+	 * searches are answered there with the exact total whatever the count mode.
+	 * Identical searches running at the same time share one computation.
+	 */
+	public Slice<ProductDTO> searchAll(String name, String categoryId, String categoryMode,
+			String excludeCategoryId, ProductSearchRange range, CountMode countMode, Pageable pageble){
+		if (!range.isValid()) {
+			throw new BadRequestException("Invalid price or date range");
+		}
+		Pageable sorted = normalizeSort(pageble);
+		ProductSearchCriteria filters = new ProductSearchCriteria(name, parseCategoryIds(categoryId),
+				parseCategoryMode(categoryMode), parseCategoryIds(excludeCategoryId), null, range);
+		CatalogSnapshot snapshot = snapshotStore.current();
+		if (snapshot != null && sorted.getSort().equals(ProductSort.NAME.toSort(Direction.ASC))) {
+			// decoded fresh by the snapshot, but shared with coalesced callers
+			return singleFlight.execute("products.search", List.of(snapshot, filters.key(), sorted),
+					() -> snapshot.search(filters, sorted)).map(ProductDTO::new);
+		}
+		SearchResultCache.Key key = new SearchResultCache.Key(catalogVersion.get(), filters.key(), countMode, sorted);
+		return resultCache.get(key, () -> singleFlight.execute("products.search", key,
+				() -> search(key.version(), filters, countMode, sorted)));
+	}
+	
+	/**
+	 * With concurrent search on, exact and cached totals are counted while the
+	 * page is read, whatever the engine, so the latency is the slower of the two.
+	 * Cached totals are kept under the catalog version the search was keyed by.
+	 */
+	private Slice<ProductDTO> search(long version, ProductSearchCriteria filters, CountMode countMode, Pageable pageble) {
+		List<Long> productIds = resolveNameCandidates(filters.getName());
+		ProductSearchCriteria criteria = productIds == null ? null : resolveCandidates(filters, productIds);
+		if (criteria == null) {
+			return Page.empty(pageble);
+		}
+		
+		switch (countMode) {
+		case NONE:
+			return repository.searchProductsSlice(criteria, pageble);
+		case CACHED:
+			if (concurrentSearch.isEnabled()) {
+				return concurrentSearch.join(() -> repository.searchProductsSlice(criteria, pageble),
+						() -> countCache.get(version, filters.key(), () -> repository.countProducts(criteria)),
+						ProductService::withTotal);
+			}
+			return withTotal(repository.searchProductsSlice(criteria, pageble),
+					countCache.get(version, filters.key(), () -> repository.countProducts(criteria)));
+		case ESTIMATED:
+			Slice<ProductDTO> slice = repository.searchProductsSlice(criteria, pageble);
+			return withTotal(slice, estimateTotal(version, filters, criteria));
+		default:
+			if (concurrentSearch.isEnabled()) {
+				return concurrentSearch.join(() -> repository.searchProductsSlice(criteria, pageble),
+						() -> repository.countProducts(criteria), ProductService::withTotal);
+			}
+			return searchPage(criteria, pageble);
+		}
+	}
+	
+	/**
+	 * Autocomplete from memory only: no connection is taken.
+	 */
+	public List<String> suggest(String prefix, int limit) {
+		return suggestIndex.suggest(prefix, Math.min(limit, ProductSuggestIndex.MAX_LIMIT));
+	}
+	
+	/**
+	 * Typo-tolerant search: products are ranked by their edit distance to the name,
+	 * then by id, and the sort of the request is ignored. Ranked ids are filtered
+	 * by category and range first, and at most max-candidates of those that pass
+	 * are kept, which bounds the total. As every match is ranked anyway, all count
+	 * modes but NONE get the exact total. Falls back to searchAll while the index
+	 * is not built or when the name has no words.
+	 */
+	public Slice<ProductDTO> searchFuzzy(String name, String categoryId, String categoryMode, String excludeCategoryId,
+			ProductSearchRange range, CountMode countMode, Pageable pageble) {
+		if (!range.isValid()) {
+			throw new BadRequestException("Invalid price or date range");
+		}
+		String words = FuzzyTermIndex.normalize(name);
+		if (words.isEmpty() || !fuzzyIndex.isReady()) {
+			return searchAll(name, categoryId, categoryMode, excludeCategoryId, range, countMode, pageble);
+		}
+		Pageable unsorted = pageble.isPaged() ? PageRequest.of(pageble.getPageNumber(), pageble.getPageSize()) : Pageable.unpaged();
+		ProductSearchCriteria filters = new ProductSearchCriteria("", parseCategoryIds(categoryId),
+				parseCategoryMode(categoryMode), parseCategoryIds(excludeCategoryId), null, range);
+		boolean counted = countMode != CountMode.NONE;
+		SearchResultCache.Key key = new SearchResultCache.Key(catalogVersion.get(), "fuzzy|" + words + "|" + filters.key(),
+				counted ? CountMode.EXACT : CountMode.NONE, unsorted);
+		return resultCache.get(key, () -> {
+			List<Long> ranked = fuzzyIndex.search(words, Integer.MAX_VALUE);
+			List<Long> ids = ranked == null ? List.of() : filterRanked(ranked, filters);
+			List<Long> pageIds = unsorted.isPaged()
+					? ids.subList((int) Math.min(ids.size(), unsorted.getOffset()), (int) Math.min(ids.size(), unsorted.getOffset() + unsorted.getPageSize()))
+					: ids;
+			List<ProductDTO> content = new ArrayList<>();
+			if (!pageIds.isEmpty()) {
+				content = IdJoin.joinIds(pageIds, ProductDTO.fromRows(repository.searchProductRows(pageIds)));
+			}
+			if (!counted) {
+				return new SliceImpl<>(content, unsorted, unsorted.isPaged() && unsorted.getOffset() + pageIds.size() < ids.size());
+			}
+			return new PageImpl<>(content, unsorted, ids.size());
+		});
+	}
+	
+	/**
+	 * Keeps the ranked ids passing the category and range filters, in rank order,
+	 * up to max-candidates. The bitmap and column indexes drop most misses; the
+	 * database checks the rest one window of max-candidates ids at a time, so the
+	 * cap applies after filtering without an unbounded IN list.
+	 */
+	private List<Long> filterRanked(List<Long> ranked, ProductSearchCriteria filters) {
+		List<Long> ids = ranked;
+		if (filters.hasCategoryFilter()) {
+			RoaringBitmap members = categoryIndex.select(filters.getCategoryIds(), filters.getCategoryMode(),
+					filters.getExcludedCategoryIds());
+			if (members != null) {
+				ids = ids.stream().filter(members::contains).toList();
+			}
+		}
+		if (!filters.getRange().isEmpty() && !ids.isEmpty()) {
+			long[] inRange = rangeIndex.select(filters.getRange(), ids.stream().mapToLong(Long::longValue).sorted().toArray(),
+					Integer.MAX_VALUE);
+			if (inRange != null) {
+				ids = ids.stream().filter(id -> Arrays.binarySearch(inRange, id) >= 0).toList();
+			}
+		}
+		List<Long> result = new ArrayList<>();
+		for (int i = 0; i < ids.size() && result.size() < maxCandidates; i += maxCandidates) {
+			List<Long> window = ids.subList(i, Math.min(ids.size(), i + maxCandidates));
+			Set<Long> matching = Set.copyOf(repository.searchMatchingIds(new ProductSearchCriteria("", filters.getCategoryIds(),
+					filters.getCategoryMode(), filters.getExcludedCategoryIds(), window, filters.getRange())));
+			for (Long id : window) {
+				if (matching.contains(id) && result.size() < maxCandidates) {
+					result.add(id);
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Not transactional, like searchAll. Facets are counted from the bitmap and
+	 * column indexes when they can resolve the name and range filters, and by the
+	 * database otherwise. Price counts apply every filter; category counts apply
+	 * those of {@link #categoryFacetCriteria}.
+	 */
+	public ProductSearchResultDTO searchWithFacets(String name, String categoryId, String categoryMode,
+			String excludeCategoryId, ProductSearchRange range, CountMode countMode, Set<Facet> facets, Pageable pageble) {
+		Slice<ProductDTO> page = searchAll(name, categoryId, categoryMode, excludeCategoryId, range, countMode, pageble);
+		List<CategoryFacetDTO> categoryFacets = new ArrayList<>();
+		List<PriceFacetDTO> priceFacets = new ArrayList<>();
+		
+		List<Long> productIds = resolveNameCandidates(name);
+		if (productIds != null) {
+			ProductSearchCriteria criteria = new ProductSearchCriteria(name, parseCategoryIds(categoryId),
+					parseCategoryMode(categoryMode), parseCategoryIds(excludeCategoryId), productIds, range);
+			RoaringBitmap base = resolveFacetBase(criteria);
+			if (facets.contains(Facet.CATEGORY)) {
+				ProductSearchCriteria facetCriteria = categoryFacetCriteria(criteria);
+				categoryFacets = base != null ? countByCategory(base, facetCriteria) : null;
+				if (categoryFacets == null) {
+					categoryFacets = repository.countByCategory(facetCriteria);
+				}
+			}
+			if (facets.contains(Facet.PRICE)) {
+				priceFacets = base != null ? countByPriceRange(base, criteria) : null;
+				if (priceFacets == null) {
+					priceFacets = repository.countByPriceRange(criteria, priceRanges);
+				}
+			}
+		}
+		return new ProductSearchResultDTO(page, categoryFacets, priceFacets);
+	}
+	
+	/**
+	 * Category counts leave the picked categories out in any mode, so others can
+	 * still be added, but keep them in all mode, where each extra pick narrows the
+	 * result. Excluded categories always apply.
+	 */
+	private static ProductSearchCriteria categoryFacetCriteria(ProductSearchCriteria criteria) {
+		List<Long> categoryIds = criteria.getCategoryMode() == CategoryMode.ALL ? criteria.getCategoryIds() : List.of();
+		return new ProductSearchCriteria(criteria.getName(), categoryIds, criteria.getCategoryMode(),
+				criteria.getExcludedCategoryIds(), criteria.getProductIds(), criteria.getRange());
+	}
+	
+	/**
+	 * Ids of the categorized products matching the name and range filters, or null
+	 * when the indexes cannot tell (name left to the query, index building).
+	 */
+	private RoaringBitmap resolveFacetBase(ProductSearchCriteria criteria) {
+		if (!criteria.getName().isEmpty() && criteria.getProductIds().isEmpty()) {
+			return null;
+		}
+		RoaringBitmap base = categoryIndex.select(List.of(), CategoryMode.ANY, List.of());
+		if (base == null) {
+			return null;
+		}
+		long[] ids = criteria.getProductIds().isEmpty() ? null
+				: criteria.getProductIds().stream().mapToLong(Long::longValue).sorted().toArray();
+		if (!criteria.getRange().isEmpty()) {
+			ids = rangeIndex.select(criteria.getRange(), ids, Integer.MAX_VALUE);
+			if (ids == null) {
+				return null;
+			}
+		}
+		return ids == null ? base : RoaringBitmap.and(base, RoaringBitmap.of(ids));
+	}
+	
+	/**
+	 * Same rows as ProductRepository.countByCategory, ordered by category name.
+	 * Null when the index is building or names a category the listing lacks.
+	 */
+	private List<CategoryFacetDTO> countByCategory(RoaringBitmap base, ProductSearchCriteria criteria) {
+		RoaringBitmap products = base;
+		if (criteria.hasCategoryFilter()) {
+			RoaringBitmap members = categoryIndex.select(criteria.getCategoryIds(), criteria.getCategoryMode(),
+					criteria.getExcludedCategoryIds());
+			if (members == null) {
+				return null;
+			}
+			products = RoaringBitmap.and(base, members);
+		}
+		Map<Long, Long> counts = categoryIndex.count(products);
+		if (counts == null) {
+			return null;
+		}
+		Map<Long, String> names = new HashMap<>();
+		categoryService.findAll().forEach(x -> names.put(x.getId(), x.getName()));
+		if (!names.keySet().containsAll(counts.keySet())) {
+			return null;
+		}
+		List<CategoryFacetDTO> result = new ArrayList<>();
+		counts.forEach((id, count) -> result.add(new CategoryFacetDTO(id, names.get(id), count)));
+		result.sort(Comparator.comparing(CategoryFacetDTO::getName, Comparator.nullsLast(Comparator.<String>naturalOrder())));
+		return result;
+	}
+	
+	private List<PriceFacetDTO> countByPriceRange(RoaringBitmap base, ProductSearchCriteria criteria) {
+		RoaringBitmap members = categoryIndex.select(criteria.getCategoryIds(), criteria.getCategoryMode(),
+				criteria.getExcludedCategoryIds());
+		long[] counts = members == null ? null : rangeIndex.countPrices(priceRanges, RoaringBitmap.and(base, members).toArray());
+		if (counts == null) {
+			return null;
+		}
+		List<PriceFacetDTO> result = new ArrayList<>();
+		for (int i = 0; i < priceRanges.length; i++) {
+			Double max = i + 1 < priceRanges.length ? priceRanges[i + 1] : null;
+			result.add(new PriceFacetDTO(priceRanges[i], max, counts[i]));
+		}
+		return result;
+	}
+	
+	private Page<ProductDTO> searchPage(ProductSearchCriteria criteria, Pageable pageble) {
+		if (searchEngine == SearchEngine.WINDOW) {
+			return repository.searchProductsPage(criteria, pageble);
+		}
+
+		Page<Long> ids = repository.searchMatchingIds(criteria, pageble);
+		List<ProductDTO> listProductDTO = ProductDTO.fromRows(repository.searchProductRows(ids.getContent()));
+		return new PageImpl<>(IdJoin.joinIds(ids.getContent(), listProductDTO), ids.getPageable(), ids.getTotalElements());
+	}
+	
+	/**
+	 * Counts the candidate ids the in-memory indexes resolved the filters to: exact
+	 * when they resolved every filter, an upper bound when some are left to the
+	 * query. When no filter could be resolved (short names, indexes building, too
+	 * many matches) the total is counted exactly, through the count cache.
+	 */
+	private long estimateTotal(long version, ProductSearchCriteria filters, ProductSearchCriteria criteria) {
+		if (!criteria.getProductIds().isEmpty()) {
+			return criteria.getProductIds().size();
+		}
+		return countCache.get(version, filters.key(), () -> repository.countProducts(criteria));
+	}
+	
+	private static Page<ProductDTO> withTotal(Slice<ProductDTO> slice, long total) {
+		long seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+		return new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(total, seen));
+	}
+	
 	@Transactional(readOnly = true)
-	public Page<ProductDTO> searchAll(String name, String categoryId, Pageable pageble){
+	public CursorPageDTO<ProductDTO> searchAfter(String name, String categoryId, String categoryMode,
+			String excludeCategoryId, ProductSearchRange range, String after, int size) {
+		if (!range.isValid()) {
+			throw new BadRequestException("Invalid price or date range");
+		}
+		ProductCursor cursor = ProductCursor.decode(after);
+		List<Long> categoryIds = parseCategoryIds(categoryId);
+		CategoryMode mode = parseCategoryMode(categoryMode);
+		List<Long> excludedCategoryIds = parseCategoryIds(excludeCategoryId);
+		List<Long> productIds = resolveNameCandidates(name);
+		if (productIds == null) {
+			return new CursorPageDTO<>(new ArrayList<>(), size, null);
+		}
+
+		ProductSearchCriteria criteria = new ProductSearchCriteria(name, categoryIds, mode, excludedCategoryIds,
+				productIds, range);
+		List<ProductProjection> rows = repository.searchProductsAfter(criteria, cursor.getName(), cursor.getId(), size + 1);
+		String next = null;
+		if (rows.size() > size) {
+			rows = rows.subList(0, size);
+			ProductProjection last = rows.get(size - 1);
+			next = new ProductCursor(last.getName(), last.getId()).encode();
+		}
+
+		List<Long> pageIds = rows.stream().map(x -> x.getId()).toList();
+		List<ProductDTO> listProductDTO = ProductDTO.fromRows(repository.searchProductRows(pageIds));
+		listProductDTO = IdJoin.join(rows, listProductDTO);
+
+		return new CursorPageDTO<>(listProductDTO, size, next);
+	}
+	
+	private static CategoryMode parseCategoryMode(String categoryMode) {
+		try {
+			return CategoryMode.from(categoryMode);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException(e.getMessage());
+		}
+	}
+	
+	/**
+	 * Checks the sort against ProductSort and rewrites it to "key, id".
+	 */
+	private static Pageable normalizeSort(Pageable pageable) {
+		try {
+			return ProductSort.normalize(pageable);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException(e.getMessage());
+		}
+	}
+	
+	private List<Long> parseCategoryIds(String categoryId) {
 		List<Long> categoryIds = Arrays.asList();
 		if(!categoryId.equals("0")) {
 			categoryIds = Arrays.asList(categoryId.split(","))
 					.stream().map(Long::parseLong).toList();
 		}
-
-		Page<ProductProjection> pageProdProjection = repository.searchProducts(categoryIds, name, pageble);
-		List<Long> productIds = pageProdProjection.map(x -> x.getId()).toList();
-		
-		List<Product> listProduct = repository.searchProductsWithCategories(productIds);
-		
-		listProduct = (List<Product>) Utils.replace(pageProdProjection.getContent(), listProduct);
-		
-		List<ProductDTO> listProductDTO = listProduct.stream().map(x -> new ProductDTO(x, x.getCategories())).collect(Collectors.toList());
-		
-		return new PageImpl<>(listProductDTO, pageProdProjection.getPageable(), pageProdProjection.getTotalPages());
+		return categoryIds;
+	}
+	
+	/**
+	 * Narrows the category and range filters to product ids with the bitmap and
+	 * column indexes, keeping only the name candidates when there are some.
+	 * Returns null when nothing can match. A filter is left to the query while its
+	 * index is building, and all of them when more than max-candidates products match.
+	 * The ids only narrow the query: every filter stays in it as a re-check, as the
+	 * indexes catch up with a commit only after it.
+	 */
+	private ProductSearchCriteria resolveCandidates(ProductSearchCriteria filters, List<Long> productIds) {
+		ProductSearchCriteria unresolved = new ProductSearchCriteria(filters.getName(), filters.getCategoryIds(),
+				filters.getCategoryMode(), filters.getExcludedCategoryIds(), productIds, filters.getRange());
+		long[] ids = productIds.isEmpty() ? null : productIds.stream().mapToLong(Long::longValue).sorted().toArray();
+		boolean byCategory = false;
+		boolean byRange = false;
+		RoaringBitmap members = !filters.hasCategoryFilter() ? null
+				: categoryIndex.select(filters.getCategoryIds(), filters.getCategoryMode(), filters.getExcludedCategoryIds());
+		// a category too large to list can still filter the range matches
+		if (members != null && (ids != null || members.cardinality() <= maxCandidates)) {
+			ids = ids == null ? members.toArray() : Arrays.stream(ids).filter(members::contains).toArray();
+			byCategory = true;
+		}
+		if (!filters.getRange().isEmpty()) {
+			long[] matching = rangeIndex.select(filters.getRange(), ids, maxCandidates);
+			if (matching != null) {
+				ids = matching;
+				byRange = true;
+			}
+			if (matching != null && members != null && !byCategory) {
+				ids = Arrays.stream(ids).filter(members::contains).toArray();
+				byCategory = true;
+			}
+		}
+		if (!byCategory && !byRange) {
+			return unresolved;
+		}
+		if (ids.length == 0) {
+			return null;
+		}
+		if (ids.length > maxCandidates) {
+			return unresolved;
+		}
+		return new ProductSearchCriteria(filters.getName(), filters.getCategoryIds(), filters.getCategoryMode(),
+				filters.getExcludedCategoryIds(), Arrays.stream(ids).boxed().toList(), filters.getRange());
+	}
+	
+	/**
+	 * Turns the name filter into the ids of the matching products using the trigram index.
+	 * Returns null when nothing can match, and an empty list when the filter is left to the query.
+	 */
+	private List<Long> resolveNameCandidates(String name) {
+		Set<Long> candidates = nameIndex.candidates(name);
+		if (candidates == null || candidates.size() > maxCandidates) {
+			return Arrays.asList();
+		}
+		if (candidates.isEmpty()) {
+			return null;
+		}
+		return new ArrayList<>(candidates);
 	}
 	
 }
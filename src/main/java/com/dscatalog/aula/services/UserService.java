@@ -1,7 +1,7 @@
 package com.dscatalog.aula.services;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.dscatalog.aula.utils.CustomUserUtil;
@@ -51,21 +51,24 @@ public class UserService implements UserDetailsService {
 
     @Transactional(readOnly = true)
     public List<UserDTO> findAll() {
-        List<User> list = repository.findAll();
-        return list.stream().map(x -> new UserDTO(x)).collect(Collectors.toList());
+        return UserDTO.fromRows(repository.searchAllUserRows());
     }
 
     @Transactional(readOnly = true)
     public Page<UserDTO> findAllPaged(Pageable pageable) {
-        Page<User> list = repository.findAll(pageable);
-        return list.map(x -> new UserDTO(x));
+        Page<Long> ids = repository.searchUserIds(pageable);
+        Map<Long, UserDTO> map = UserDTO.fromRows(repository.searchUserRows(ids.getContent())).stream()
+                .collect(Collectors.toMap(x -> x.getId(), x -> x));
+        return ids.map(map::get);
     }
 
     @Transactional(readOnly = true)
     public UserDTO findById(Long id) {
-        Optional<User> entity = repository.findById(id);
-        User user = entity.orElseThrow(() -> new ResourceNotFoundException("Entity not Found"));
-        return new UserDTO(user);
+        List<UserDTO> list = UserDTO.fromRows(repository.searchUserRows(id));
+        if (list.isEmpty()) {
+            throw new ResourceNotFoundException("Entity not Found");
+        }
+        return list.get(0);
     }
 
     @Transactional
@@ -129,7 +132,7 @@ public class UserService implements UserDetailsService {
 
     protected User authenticated() {
         try {
-            return repository.findByEmail(userUtil.getLoggedUsername());
+            return repository.findWithRolesByEmail(userUtil.getLoggedUsername());
         } catch (Exception e) {
             throw new UsernameNotFoundException("Invalid user");
         }
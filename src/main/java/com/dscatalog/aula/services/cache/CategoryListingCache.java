@@ -0,0 +1,136 @@
+package com.dscatalog.aula.services.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dscatalog.aula.dto.CacheStatsDTO;
+import com.dscatalog.aula.services.events.CategoryChangedEvent;
+
+/**
+ * Stale-while-revalidate cache of category listings. A value younger than
+ * max-age is served as is; one older but still within the stale window is
+ * served at once while a single background task reloads it; past both it is
+ * loaded by the caller. Committed category writes on this node drop every
+ * entry, so only writes the node cannot see wait for the windows to pass.
+ * A load that started before such a write never stores its result.
+ */
+@Component
+public class CategoryListingCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(CategoryListingCache.class);
+
+	@Value("${catalog.categories.max-age-seconds:60}")
+	private long maxAgeSeconds;
+
+	@Value("${catalog.categories.stale-while-revalidate-seconds:600}")
+	private long staleSeconds;
+
+	@Autowired
+	private TaskExecutor taskExecutor;
+
+	private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+	private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+	private long generation;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key, Supplier<T> loader) {
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			long age = System.currentTimeMillis() - entry.loadedAt();
+			if (age < TimeUnit.SECONDS.toMillis(maxAgeSeconds + staleSeconds)) {
+				hits.incrementAndGet();
+				if (age >= TimeUnit.SECONDS.toMillis(maxAgeSeconds)) {
+					refresh(key, loader);
+				}
+				return (T) entry.value();
+			}
+		}
+		misses.incrementAndGet();
+		return load(key, loader);
+	}
+
+	/**
+	 * Cache-Control for responses built from this cache: clients and shared caches
+	 * may keep them for the same windows, so a listing can be up to max-age plus
+	 * the stale window behind a write.
+	 */
+	public CacheControl cacheControl() {
+		return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS)
+				.staleWhileRevalidate(staleSeconds, TimeUnit.SECONDS)
+				.cachePublic();
+	}
+
+	/**
+	 * Hits include stale values served while refreshing.
+	 */
+	public CacheStatsDTO stats() {
+		return new CacheStatsDTO(hits.get(), misses.get(), null, (long) entries.size(), null);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		synchronized (entries) {
+			generation++;
+			entries.clear();
+		}
+	}
+
+	private <T> T load(Object key, Supplier<T> loader) {
+		long started;
+		synchronized (entries) {
+			started = generation;
+		}
+		T value = loader.get();
+		synchronized (entries) {
+			if (generation == started) {
+				entries.put(key, new Entry(value, System.currentTimeMillis()));
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Reloads in the background unless a reload of the key is already running.
+	 * A failed reload is logged and leaves the stale value in place until its
+	 * window ends.
+	 */
+	private void refresh(Object key, Supplier<?> loader) {
+		if (!refreshing.add(key)) {
+			return;
+		}
+		try {
+			taskExecutor.execute(() -> {
+				try {
+					load(key, loader);
+				} catch (RuntimeException e) {
+					logger.warn("Background refresh of category listing {} failed", key, e);
+				} finally {
+					refreshing.remove(key);
+				}
+			});
+		} catch (TaskRejectedException e) {
+			refreshing.remove(key);
+		}
+	}
+
+	private record Entry(Object value, long loadedAt) {
+	}
+
+}
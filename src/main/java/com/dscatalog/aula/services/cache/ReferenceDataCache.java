@@ -0,0 +1,70 @@
+package com.dscatalog.aula.services.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.dscatalog.aula.dto.CacheStatsDTO;
+import com.dscatalog.aula.entities.Category;
+import com.dscatalog.aula.entities.Role;
+import com.dscatalog.aula.repositories.ReferenceQueries;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Second-level cache regions holding categories, roles and the queries over them.
+ * The regions are heap-only and per node: Hibernate keeps them coherent for
+ * writes made through it on this node, {@link ReferenceDataWatcher} evicts them
+ * after category writes on other nodes, and evictAll only clears this node's
+ * copy after SQL run outside Hibernate. The ehcache.xml TTL bounds staleness
+ * for whatever none of these see. Stats are empty unless
+ * hibernate.generate_statistics is on.
+ */
+@Component
+public class ReferenceDataCache {
+
+	private static final List<String> REGIONS = List.of(Category.CACHE_REGION, Role.CACHE_REGION,
+			ReferenceQueries.CACHE_REGION);
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	public void evictAll() {
+		Cache cache = sessionFactory().getCache();
+		cache.evictEntityData(Category.class);
+		cache.evictEntityData(Role.class);
+		cache.evictQueryRegion(ReferenceQueries.CACHE_REGION);
+	}
+
+	public Map<String, CacheStatsDTO> stats() {
+		Map<String, CacheStatsDTO> result = new LinkedHashMap<>();
+		Statistics statistics = sessionFactory().getStatistics();
+		if (!statistics.isStatisticsEnabled()) {
+			return result;
+		}
+		for (String region : REGIONS) {
+			CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+			if (stats != null) {
+				result.put(region, new CacheStatsDTO(stats.getHitCount(), stats.getMissCount(), null,
+						supported(stats.getElementCountInMemory()), supported(stats.getSizeInMemory())));
+			}
+		}
+		return result;
+	}
+
+	private SessionFactory sessionFactory() {
+		return entityManagerFactory.unwrap(SessionFactory.class);
+	}
+
+	private static Long supported(long value) {
+		return value < 0 ? null : value;
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.dscatalog.aula.services.cache;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dscatalog.aula.projections.CategoryStateProjection;
+import com.dscatalog.aula.repositories.CategoryRepository;
+import com.dscatalog.aula.services.CatalogStatsService;
+
+/**
+ * Cluster-wide invalidation of the node-local reference data: every node polls
+ * the count, highest id and version sum of the categories, and evicts its
+ * regions and category-derived caches once they move. Hibernate bumps the
+ * version on every category update, so a write committed on any node reaches
+ * the others within one interval. Roles are only changed by SQL and, like
+ * other out-of-band writes, still wait for the TTL or DELETE
+ * /catalog/cache/reference.
+ */
+@Component
+public class ReferenceDataWatcher {
+
+	@Autowired
+	private CategoryRepository repository;
+
+	@Autowired
+	private CatalogStatsService statsService;
+
+	private List<Long> last;
+
+	@Scheduled(initialDelayString = "${catalog.reference.check-interval-ms:30000}",
+			fixedDelayString = "${catalog.reference.check-interval-ms:30000}")
+	public void check() {
+		CategoryStateProjection state = repository.searchCategoryState();
+		List<Long> current = List.of(state.getTotal(), state.getMaxId(), state.getVersions());
+		if (last != null && !last.equals(current)) {
+			statsService.evictReferenceData();
+		}
+		last = current;
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.dscatalog.aula.services.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dscatalog.aula.dto.CoalescingStatsDTO;
+
+/**
+ * Coalesces identical concurrent reads. The first caller of a key runs the
+ * loader; callers arriving while it runs wait for its result (or exception)
+ * instead of running their own. Nothing is kept once the call completes, so
+ * this is not a cache: keys must still carry the catalog version, or a reader
+ * arriving just after a write could get the result of a call started before it.
+ * Callers must not hold a transaction while they wait, or every follower would
+ * pin a connection doing nothing.
+ */
+@Component
+public class SingleFlight {
+
+	@Value("${catalog.coalescing.enabled:true}")
+	private boolean enabled;
+
+	private final ConcurrentMap<Call, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String name, Object key, Supplier<T> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		Counters counter = counters.computeIfAbsent(name, x -> new Counters());
+		counter.calls.incrementAndGet();
+		Call call = new Call(name, key);
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> leader = calls.putIfAbsent(call, mine);
+		if (leader != null) {
+			counter.coalesced.incrementAndGet();
+			return (T) await(leader);
+		}
+		try {
+			T value = loader.get();
+			mine.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			calls.remove(call, mine);
+		}
+	}
+
+	public Map<String, CoalescingStatsDTO> stats() {
+		Map<String, CoalescingStatsDTO> result = new LinkedHashMap<>();
+		counters.keySet().stream().sorted().forEach(name -> {
+			Counters counter = counters.get(name);
+			long inFlight = calls.keySet().stream().filter(call -> call.name().equals(name)).count();
+			result.put(name, new CoalescingStatsDTO(counter.calls.get(), counter.coalesced.get(), inFlight));
+		});
+		return result;
+	}
+
+	/**
+	 * Waits for the leader and rethrows its exception as is, so followers get the
+	 * same 404 or 503 it got.
+	 */
+	private static Object await(CompletableFuture<Object> leader) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return leader.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private record Call(String name, Object key) {
+	}
+
+	private static class Counters {
+		private final AtomicLong calls = new AtomicLong();
+		private final AtomicLong coalesced = new AtomicLong();
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.dscatalog.aula.services.events;
+
+/**
+ * Published by CategoryService after a category is inserted, updated or deleted.
+ */
+public class CategoryChangedEvent {
+
+	private final Long id;
+
+	public CategoryChangedEvent(Long id) {
+		this.id = id;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+}
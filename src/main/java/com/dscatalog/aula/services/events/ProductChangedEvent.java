@@ -0,0 +1,65 @@
+package com.dscatalog.aula.services.events;
+
+import com.dscatalog.aula.dto.ProductDTO;
+
+/**
+ * Published by ProductService after a product is inserted, updated or deleted.
+ * Listeners bound to the transaction only see it once the write has committed.
+ * Partial events come from bulk patches: null fields of the product were not
+ * changed, and its categories only were when hasCategories says so.
+ */
+public class ProductChangedEvent {
+
+	private final Long id;
+	private final ProductDTO product;
+	private final boolean partial;
+	private final boolean categories;
+
+	public ProductChangedEvent(Long id, ProductDTO product) {
+		this(id, product, false, true);
+	}
+
+	private ProductChangedEvent(Long id, ProductDTO product, boolean partial, boolean categories) {
+		this.id = id;
+		this.product = product;
+		this.partial = partial;
+		this.categories = categories;
+	}
+
+	public static ProductChangedEvent deleted(Long id) {
+		return new ProductChangedEvent(id, null);
+	}
+
+	/**
+	 * The categories of changes replace the current ones only when withCategories
+	 * is set; otherwise they were not part of the patch and are empty.
+	 */
+	public static ProductChangedEvent patched(Long id, ProductDTO changes, boolean withCategories) {
+		return new ProductChangedEvent(id, changes, true, withCategories);
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public ProductDTO getProduct() {
+		return product;
+	}
+
+	public boolean isDeleted() {
+		return product == null;
+	}
+
+	public boolean isPartial() {
+		return partial;
+	}
+
+	/**
+	 * Whether the product carries its whole category set: always for inserts and
+	 * updates, only when the patch sent them for partial events.
+	 */
+	public boolean hasCategories() {
+		return categories;
+	}
+
+}
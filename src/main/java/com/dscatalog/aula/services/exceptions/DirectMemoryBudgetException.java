@@ -0,0 +1,10 @@
+package com.dscatalog.aula.services.exceptions;
+
+public class DirectMemoryBudgetException extends IllegalStateException {
+	private static final long serialVersionUID = 1L;
+
+	public DirectMemoryBudgetException(String msg) {
+		super(msg);
+	}
+	
+}
@@ -0,0 +1,10 @@
+package com.dscatalog.aula.services.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public PreconditionFailedException(String msg) {
+		super(msg);
+	}
+	
+}
@@ -0,0 +1,10 @@
+package com.dscatalog.aula.services.exceptions;
+
+public class SearchTimeoutException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+
+	public SearchTimeoutException(String msg) {
+		super(msg);
+	}
+	
+}
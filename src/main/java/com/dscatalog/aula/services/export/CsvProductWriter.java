@@ -0,0 +1,66 @@
+package com.dscatalog.aula.services.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+import com.dscatalog.aula.dto.ProductDTO;
+
+public class CsvProductWriter implements ProductExportWriter {
+
+	private static final String HEADER = "id,name,description,price,imgUrl,date,categories";
+
+	private final Writer out;
+
+	public CsvProductWriter(OutputStream out) {
+		this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public void begin() throws IOException {
+		out.write(HEADER);
+		out.write("\r\n");
+	}
+
+	@Override
+	public void write(ProductDTO product) throws IOException {
+		String categories = product.getCategories().stream().map(x -> x.getName()).collect(Collectors.joining("|"));
+		out.write(String.valueOf(product.getId()));
+		out.write(',');
+		field(product.getName());
+		out.write(',');
+		field(product.getDescription());
+		out.write(',');
+		out.write(product.getPrice() == null ? "" : product.getPrice().toString());
+		out.write(',');
+		field(product.getImgUrl());
+		out.write(',');
+		out.write(product.getDate() == null ? "" : product.getDate().toString());
+		out.write(',');
+		field(categories);
+		out.write("\r\n");
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	private void field(String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			out.write(value);
+			return;
+		}
+		out.write('"');
+		out.write(value.replace("\"", "\"\""));
+		out.write('"');
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.dscatalog.aula.services.export;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+import com.dscatalog.aula.services.exceptions.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Output formats of the catalog export.
+ */
+public enum ExportFormat {
+
+	/** One JSON product per line. */
+	NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+
+	/** RFC 4180 CSV with a header row; categories are joined with '|'. */
+	CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+	private final MediaType mediaType;
+	private final String extension;
+
+	ExportFormat(MediaType mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public ProductExportWriter newWriter(OutputStream out, ObjectMapper mapper) {
+		return this == NDJSON ? new NdjsonProductWriter(out, mapper) : new CsvProductWriter(out);
+	}
+
+	public static ExportFormat from(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid export format - " + value);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.dscatalog.aula.services.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+public class NdjsonProductWriter implements ProductExportWriter {
+
+	private final JsonGenerator generator;
+	private final ObjectWriter writer;
+
+	public NdjsonProductWriter(OutputStream out, ObjectMapper mapper) {
+		try {
+			this.generator = mapper.getFactory().createGenerator(out)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		this.writer = mapper.writerFor(ProductDTO.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	@Override
+	public void begin() {
+	}
+
+	@Override
+	public void write(ProductDTO product) throws IOException {
+		writer.writeValue(generator, product);
+		generator.writeRaw('\n');
+	}
+
+	@Override
+	public void flush() throws IOException {
+		generator.flush();
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.dscatalog.aula.services.export;
+
+import java.io.IOException;
+
+import com.dscatalog.aula.dto.ProductDTO;
+
+/**
+ * Writes exported products one at a time, without buffering the catalog.
+ */
+public interface ProductExportWriter {
+
+	void begin() throws IOException;
+
+	void write(ProductDTO product) throws IOException;
+
+	void flush() throws IOException;
+
+}
@@ -0,0 +1,370 @@
+package com.dscatalog.aula.services.search;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.VersionProjection;
+import com.dscatalog.aula.repositories.CategoryMode;
+import com.dscatalog.aula.repositories.ProductSearchCriteria;
+import com.dscatalog.aula.repositories.ProductSearchRange;
+import com.dscatalog.aula.utils.LongLongHashMap;
+
+/**
+ * Immutable copy of the whole catalog. Products are encoded off the heap in a
+ * {@link ProductArena}; the heap keeps only their addresses sorted by name then
+ * id, a primitive id-to-address map and, per category, the positions of its
+ * products. DTOs are decoded on demand for the ids and pages asked for.
+ * Nothing is modified after construction, so readers share it without any
+ * locking. Writers build a new snapshot with {@link #with} and publish it as a whole.
+ */
+public final class CatalogSnapshot {
+
+	static final Comparator<ProductDTO> ORDER = Comparator
+			.comparing(ProductDTO::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+			.thenComparing(ProductDTO::getId);
+
+	private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(Comparator.<String>naturalOrder());
+
+	private final ProductArena arena;
+	private final ByteBuffer[] chunks;
+	private final long[] addresses;
+	private final LongLongHashMap byId;
+	private final Map<Long, String> categoryNames;
+	private final Map<Long, BitSet> categories;
+	private final BitSet categorized;
+
+	private CatalogSnapshot(ProductArena arena, long[] addresses, LongLongHashMap byId, Map<Long, String> categoryNames,
+			Map<Long, BitSet> categories, BitSet categorized) {
+		this.arena = arena;
+		this.chunks = arena.chunks();
+		this.addresses = addresses;
+		this.byId = byId;
+		this.categoryNames = categoryNames;
+		this.categories = categories;
+		this.categorized = categorized;
+	}
+
+	public static CatalogSnapshot of(Collection<ProductDTO> products) {
+		return of(products.iterator());
+	}
+
+	public static CatalogSnapshot of(Iterator<ProductDTO> products) {
+		return of(products, ProductArena.Budget.UNLIMITED);
+	}
+
+	/**
+	 * Encodes the products as they come, so only one DTO at a time and a name per
+	 * product (for the sort) are on the heap while building.
+	 */
+	static CatalogSnapshot of(Iterator<ProductDTO> products, ProductArena.Budget budget) {
+		ProductArena arena = new ProductArena(budget);
+		Map<Long, String> categoryNames = new HashMap<>();
+		List<Entry> entries = new ArrayList<>();
+		while (products.hasNext()) {
+			ProductDTO dto = products.next();
+			entries.add(new Entry(dto.getName(), dto.getId(), arena.append(dto)));
+			putCategoryNames(categoryNames, dto);
+		}
+		entries.sort(Comparator.comparing(Entry::name, NAME_ORDER).thenComparingLong(Entry::id));
+		ByteBuffer[] chunks = arena.chunks();
+		long[] addresses = new long[entries.size()];
+		LongLongHashMap byId = new LongLongHashMap(addresses.length);
+		Map<Long, BitSet> categories = new HashMap<>();
+		BitSet categorized = new BitSet(addresses.length);
+		for (int i = 0; i < addresses.length; i++) {
+			addresses[i] = entries.get(i).address();
+			byId.put(entries.get(i).id(), addresses[i]);
+			for (long categoryId : ProductArena.categoryIds(chunks, addresses[i])) {
+				categories.computeIfAbsent(categoryId, x -> new BitSet(addresses.length)).set(i);
+				categorized.set(i);
+			}
+		}
+		return new CatalogSnapshot(arena, addresses, byId, categoryNames, categories, categorized);
+	}
+
+	/**
+	 * Returns a new snapshot where the given products replace (or are added to)
+	 * the current ones and the removed ids are gone. This one is left untouched:
+	 * new records are appended to the shared arena past the ones it can see.
+	 * Only the changed products are looked up and indexed; the unchanged runs
+	 * between them keep their addresses, and their category bits are copied a
+	 * word at a time to their new positions.
+	 * Once the arena holds more than twice the live records plus a chunk, the
+	 * live ones are copied to a fresh arena drawing from the same budget, and the
+	 * old one is freed by the GC once no snapshot uses it.
+	 */
+	public CatalogSnapshot with(List<ProductDTO> upserts, Collection<Long> removed) {
+		int[] gone = positionsOf(upserts, removed);
+		ProductDTO[] added = upserts.toArray(new ProductDTO[0]);
+		Arrays.sort(added, ORDER);
+		int[] insertAt = new int[added.length];
+		for (int j = 0; j < added.length; j++) {
+			insertAt[j] = upperBound(added[j].getName(), added[j].getId());
+		}
+
+		Map<Long, String> names = new HashMap<>(categoryNames);
+		int size = addresses.length - gone.length + added.length;
+		long[] merged = new long[size];
+		int[] addedAt = new int[added.length];
+		List<int[]> runs = new ArrayList<>();
+		int i = 0, j = 0, g = 0, n = 0;
+		while (i < addresses.length || j < added.length) {
+			int stop = Math.min(g < gone.length ? gone[g] : addresses.length,
+					j < added.length ? insertAt[j] : addresses.length);
+			if (stop > i) {
+				System.arraycopy(addresses, i, merged, n, stop - i);
+				runs.add(new int[] { i, stop, n });
+				n += stop - i;
+				i = stop;
+			} else if (j < added.length && insertAt[j] == i) {
+				merged[n] = arena.append(added[j]);
+				addedAt[j] = n++;
+				putCategoryNames(names, added[j++]);
+			} else {
+				i++;
+				g++;
+			}
+		}
+
+		LongLongHashMap ids = new LongLongHashMap(byId);
+		for (Long id : removed) {
+			ids.remove(id);
+		}
+		for (int k = 0; k < added.length; k++) {
+			ids.put(added[k].getId(), merged[addedAt[k]]);
+		}
+
+		BitSet categorizedNext = shift(categorized, runs, size);
+		Map<Long, BitSet> categoriesNext = new HashMap<>();
+		for (Map.Entry<Long, BitSet> entry : categories.entrySet()) {
+			BitSet members = shift(entry.getValue(), runs, size);
+			if (!members.isEmpty()) {
+				categoriesNext.put(entry.getKey(), members);
+			}
+		}
+		for (int k = 0; k < added.length; k++) {
+			for (CategoryDTO category : added[k].getCategories()) {
+				categoriesNext.computeIfAbsent(category.getId(), x -> new BitSet(size)).set(addedAt[k]);
+				categorizedNext.set(addedAt[k]);
+			}
+		}
+
+		ProductArena target = arena;
+		ByteBuffer[] from = arena.chunks();
+		if (arena.bytes() > 2 * liveBytes(from, merged) + ProductArena.CHUNK) {
+			target = new ProductArena(arena.budget());
+			for (int k = 0; k < merged.length; k++) {
+				long id = ProductArena.id(from, merged[k]);
+				merged[k] = target.copy(from, merged[k]);
+				ids.put(id, merged[k]);
+			}
+		}
+		return new CatalogSnapshot(target, merged, ids, names, categoriesNext, categorizedNext);
+	}
+
+	public ProductDTO findById(Long id) {
+		long address = byId.get(id);
+		return address < 0 ? null : ProductArena.decode(chunks, address, categoryNames);
+	}
+
+	/**
+	 * Version of the product, read from its record without decoding the rest;
+	 * null when the product is absent.
+	 */
+	public VersionProjection findVersion(Long id) {
+		long address = byId.get(id);
+		return address < 0 ? null : new ProductVersion(id, ProductArena.version(chunks, address));
+	}
+
+	public int size() {
+		return addresses.length;
+	}
+
+	/**
+	 * Off-heap bytes of the arena behind this snapshot, including records of
+	 * older snapshots not yet compacted away.
+	 */
+	public long offHeapBytes() {
+		return arena.bytes();
+	}
+
+	public Page<ProductDTO> search(String name, List<Long> categoryIds, ProductSearchRange range, Pageable pageable) {
+		return search(new ProductSearchCriteria(name, categoryIds, null, range), pageable);
+	}
+
+	/**
+	 * Same filters as the database search engines: products with at least one
+	 * category, in any or all of the given ones (per the mode, all products when
+	 * none), in none of the excluded ones, whose name contains the term ignoring
+	 * case and whose price and date fall in the range, ordered by name and id.
+	 * Names are compared with String.compareTo, code unit by code unit, which is
+	 * the order of H2 and of PostgreSQL under the C collation only: a database
+	 * with a locale collation sorts case and accents differently, so its pages
+	 * hold the same products in another order. The sort of the pageable and the
+	 * product ids of the criteria are ignored.
+	 */
+	public Page<ProductDTO> search(ProductSearchCriteria filters, Pageable pageable) {
+		byte[] term = ProductArena.utf8(ProductNameIndex.normalize(filters.getName()));
+		ProductSearchRange range = filters.getRange();
+		BitSet candidates = categorized;
+		if (!filters.getCategoryIds().isEmpty()) {
+			candidates = null;
+			for (Long categoryId : filters.getCategoryIds()) {
+				BitSet members = categories.getOrDefault(categoryId, new BitSet());
+				if (candidates == null) {
+					candidates = (BitSet) members.clone();
+				} else if (filters.getCategoryMode() == CategoryMode.ALL) {
+					candidates.and(members);
+				} else {
+					candidates.or(members);
+				}
+			}
+		}
+		if (!filters.getExcludedCategoryIds().isEmpty()) {
+			if (candidates == categorized) {
+				candidates = (BitSet) categorized.clone();
+			}
+			for (Long categoryId : filters.getExcludedCategoryIds()) {
+				BitSet members = categories.get(categoryId);
+				if (members != null) {
+					candidates.andNot(members);
+				}
+			}
+		}
+
+		long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+		int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+		List<ProductDTO> content = new ArrayList<>(Math.min(limit, addresses.length));
+		long total = 0;
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			long address = addresses[i];
+			if ((term.length == 0 || ProductArena.nameContains(chunks, address, term))
+					&& (range.isEmpty() || range.contains(ProductArena.price(chunks, address), ProductArena.date(chunks, address)))) {
+				if (total >= offset && content.size() < limit) {
+					content.add(ProductArena.decode(chunks, address, categoryNames));
+				}
+				total++;
+			}
+		}
+		return new PageImpl<>(content, pageable, total);
+	}
+
+	/**
+	 * Sorted positions of the products that are replaced or removed.
+	 */
+	private int[] positionsOf(List<ProductDTO> upserts, Collection<Long> removed) {
+		List<Long> changed = new ArrayList<>(upserts.size() + removed.size());
+		upserts.forEach(x -> changed.add(x.getId()));
+		changed.addAll(removed);
+		int[] result = new int[changed.size()];
+		int count = 0;
+		for (Long id : changed) {
+			long address = byId.get(id);
+			if (address >= 0) {
+				result[count++] = upperBound(ProductArena.name(chunks, address), id) - 1;
+			}
+		}
+		return Arrays.stream(result, 0, count).sorted().distinct().toArray();
+	}
+
+	/**
+	 * First position whose product sorts after the given name and id.
+	 */
+	private int upperBound(String name, long id) {
+		int low = 0;
+		int high = addresses.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			int cmp = NAME_ORDER.compare(ProductArena.name(chunks, addresses[mid]), name);
+			if (cmp == 0) {
+				cmp = Long.compare(ProductArena.id(chunks, addresses[mid]), id);
+			}
+			if (cmp <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Copies the bits of each run (old start, old end, new start) to its new
+	 * position, 64 at a time.
+	 */
+	private static BitSet shift(BitSet bits, List<int[]> runs, int size) {
+		long[] from = bits.toLongArray();
+		long[] to = new long[(size + 63) / 64 + 1];
+		for (int[] run : runs) {
+			for (int i = run[0], n = run[2]; i < run[1]; i += 64, n += 64) {
+				int length = Math.min(64, run[1] - i);
+				long word = word(from, i) & (length == 64 ? -1L : (1L << length) - 1);
+				to[n >>> 6] |= word << n;
+				if ((n & 63) != 0) {
+					to[(n >>> 6) + 1] |= word >>> (64 - (n & 63));
+				}
+			}
+		}
+		return BitSet.valueOf(to);
+	}
+
+	/**
+	 * The 64 bits starting at the given one, zeros past the end.
+	 */
+	private static long word(long[] words, int bit) {
+		int index = bit >>> 6;
+		if (index >= words.length) {
+			return 0;
+		}
+		long result = words[index] >>> bit;
+		if ((bit & 63) != 0 && index + 1 < words.length) {
+			result |= words[index + 1] << (64 - (bit & 63));
+		}
+		return result;
+	}
+
+	private static long liveBytes(ByteBuffer[] chunks, long[] live) {
+		long result = 0;
+		for (long address : live) {
+			result += ProductArena.size(chunks, address);
+		}
+		return result;
+	}
+
+	private static void putCategoryNames(Map<Long, String> names, ProductDTO dto) {
+		for (CategoryDTO category : dto.getCategories()) {
+			names.put(category.getId(), category.getName());
+		}
+	}
+
+	private record Entry(String name, long id, long address) {
+	}
+
+	private record ProductVersion(Long id, Long version) implements VersionProjection {
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public Long getVersion() {
+			return version;
+		}
+	}
+
+}
@@ -0,0 +1,172 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductRow;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.CategoryChangedEvent;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+import com.dscatalog.aula.services.exceptions.DirectMemoryBudgetException;
+
+/**
+ * Publishes the current {@link CatalogSnapshot} when snapshot mode is on.
+ * Committed writes only mark ids dirty; a single background drain reloads
+ * them in batches and swaps in a patched snapshot, so a bulk import costs one
+ * query per batch rather than one per row. Category changes rebuild it whole.
+ * Readers see a write shortly after its commit, never a half-applied one.
+ * A failed reload is logged and readers use the database until the next write
+ * rebuilds the snapshot. Snapshot arenas draw from one direct memory budget; a
+ * reload that would go past it turns snapshot mode off until restart instead,
+ * as every rebuild would fail the same way.
+ */
+@Component
+public class CatalogSnapshotStore {
+
+	static final int RELOAD_CHUNK = 1000;
+
+	private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private TaskExecutor taskExecutor;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${catalog.snapshot.enabled:false}")
+	private boolean enabled;
+
+	@Value("${catalog.snapshot.max-direct-bytes:805306368}")
+	private long maxDirectBytes;
+
+	private ProductArena.Budget budget;
+
+	private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+	private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean rebuild = new AtomicBoolean();
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private volatile boolean disabled;
+
+	/**
+	 * Returns the latest snapshot, or null when snapshot mode is off or the
+	 * first build has not finished; callers then read from the database.
+	 */
+	public CatalogSnapshot current() {
+		return current.get();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		if (enabled && !disabled) {
+			rebuild.set(true);
+			schedule();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (enabled && !disabled) {
+			dirty.add(event.getId());
+			schedule();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		if (enabled && !disabled) {
+			rebuild.set(true);
+			schedule();
+		}
+	}
+
+	private void schedule() {
+		if (draining.compareAndSet(false, true)) {
+			taskExecutor.execute(this::drain);
+		}
+	}
+
+	private void drain() {
+		boolean failed = false;
+		try {
+			while (rebuild.get() || !dirty.isEmpty()) {
+				if (rebuild.getAndSet(false)) {
+					// ids marked before this point are covered by the full reload
+					dirty.clear();
+					current.set(load());
+				} else if (current.get() != null) {
+					List<Long> ids = new ArrayList<>(dirty);
+					dirty.removeAll(ids);
+					current.set(patch(current.get(), ids));
+				} else {
+					dirty.clear();
+				}
+			}
+		} catch (DirectMemoryBudgetException e) {
+			failed = true;
+			disabled = true;
+			current.set(null);
+			dirty.clear();
+			logger.error("Catalog snapshot disabled until restart, raise catalog.snapshot.max-direct-bytes", e);
+		} catch (RuntimeException e) {
+			// readers go back to the database until the next write retries with a full rebuild
+			failed = true;
+			current.set(null);
+			rebuild.set(true);
+			logger.warn("Catalog snapshot reload failed, reading from the database until the next write", e);
+		} finally {
+			draining.set(false);
+			if (!failed && (rebuild.get() || !dirty.isEmpty())) {
+				schedule();
+			}
+		}
+	}
+
+	/**
+	 * Streams the catalog from a cursor straight into a new snapshot.
+	 */
+	private CatalogSnapshot load() {
+		if (budget == null) {
+			budget = new ProductArena.Budget(maxDirectBytes);
+		}
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		return template.execute(status -> {
+			try (Stream<ProductRow> rows = repository.streamAllProductRows()) {
+				return CatalogSnapshot.of(ProductDTO.fromGroupedRows(rows.iterator()), budget);
+			}
+		});
+	}
+
+	private CatalogSnapshot patch(CatalogSnapshot snapshot, List<Long> ids) {
+		List<ProductDTO> upserts = new ArrayList<>(ids.size());
+		for (int i = 0; i < ids.size(); i += RELOAD_CHUNK) {
+			upserts.addAll(ProductDTO.fromRows(repository.searchProductRows(ids.subList(i, Math.min(ids.size(), i + RELOAD_CHUNK)))));
+		}
+		Set<Long> removed = new HashSet<>(ids);
+		upserts.forEach(x -> removed.remove(x.getId()));
+		return snapshot.with(upserts, removed);
+	}
+
+}
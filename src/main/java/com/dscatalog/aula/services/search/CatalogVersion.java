@@ -0,0 +1,39 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dscatalog.aula.services.events.CategoryChangedEvent;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+/**
+ * Counter bumped after every committed catalog write. Read-side caches put it
+ * in their keys, so a write makes every older entry unreachable at once.
+ * Listeners run last, after the in-memory indexes have applied the same write.
+ */
+@Component
+public class CatalogVersion {
+
+	private final AtomicLong version = new AtomicLong();
+
+	public long get() {
+		return version.get();
+	}
+
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		version.incrementAndGet();
+	}
+
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCategoryChanged(CategoryChangedEvent event) {
+		version.incrementAndGet();
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.dscatalog.aula.services.exceptions.SearchTimeoutException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the page query and the count query of a search side by side. Each task
+ * runs on its own pool thread, and searchAll holds no transaction, so the
+ * repository opens a separate read-only transaction and connection for it.
+ * The caller waits for both up to the timeout; past it both are cancelled, and
+ * the statements themselves are stopped by the repository query timeout, since
+ * interrupting a thread does not abort JDBC.
+ * By default the pool gets half the Hikari connections, leaving the rest to
+ * other requests. When its queue is full the caller runs the queries itself,
+ * one after the other.
+ * The pool is private rather than a TaskExecutor bean, so it does not replace
+ * the application task executor.
+ */
+@Component
+public class ConcurrentSearch {
+
+	@Value("${catalog.search.concurrent.enabled:false}")
+	private boolean enabled;
+
+	@Value("${catalog.search.concurrent.threads:0}")
+	private int threads;
+
+	@Value("${catalog.search.concurrent.queue-capacity:16}")
+	private int queueCapacity;
+
+	@Value("${spring.datasource.hikari.maximum-pool-size:10}")
+	private int connections;
+
+	@Value("${catalog.search.concurrent.timeout-ms:5000}")
+	private long timeoutMillis;
+
+	private ThreadPoolExecutor executor;
+
+	@PostConstruct
+	public void start() {
+		AtomicInteger count = new AtomicInteger();
+		ThreadFactory factory = r -> {
+			Thread thread = new Thread(r, "search-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		int size = threads > 0 ? threads : Math.max(1, connections / 2);
+		executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), factory);
+	}
+
+	@PreDestroy
+	public void stop() {
+		executor.shutdownNow();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public <A, B, R> R join(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combiner) {
+		Future<A> a = submit(first);
+		if (a == null) {
+			return combiner.apply(first.get(), second.get());
+		}
+		Future<B> b = submit(second);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		try {
+			B resultB = b == null ? second.get() : null;
+			A resultA = a.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+			if (b != null) {
+				resultB = b.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+			}
+			return combiner.apply(resultA, resultB);
+		} catch (TimeoutException | CancellationException e) {
+			throw new SearchTimeoutException("Search took longer than " + timeoutMillis + " ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SearchTimeoutException("Search interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			a.cancel(true);
+			if (b != null) {
+				b.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Null when the queue is full: the caller then runs the task itself.
+	 */
+	private <T> Future<T> submit(Supplier<T> task) {
+		try {
+			return executor.submit(task::get);
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+	}
+
+}
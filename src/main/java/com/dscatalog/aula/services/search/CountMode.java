@@ -0,0 +1,32 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.Locale;
+
+import com.dscatalog.aula.services.exceptions.BadRequestException;
+
+/**
+ * How a paged product search fills in its total number of elements.
+ */
+public enum CountMode {
+
+	/** Count every match on each request. */
+	EXACT,
+
+	/** Reuse a recent exact count for the same filters. */
+	CACHED,
+
+	/** Approximate the total from the candidates resolved by the in-memory indexes. */
+	ESTIMATED,
+
+	/** No total: return a slice that only knows whether a next page exists. */
+	NONE;
+
+	public static CountMode from(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid count mode - " + value);
+		}
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.dscatalog.aula.services.exceptions.BadRequestException;
+
+/**
+ * Aggregations that can be returned next to a product search page.
+ */
+public enum Facet {
+
+	/** Hits per category for the current name filter, ignoring the category filter. */
+	CATEGORY,
+
+	/** Hits per configured price range for the current name and category filters. */
+	PRICE;
+
+	public static Set<Facet> parse(String value) {
+		Set<Facet> result = EnumSet.noneOf(Facet.class);
+		for (String item : value.split(",")) {
+			if (item.isBlank()) {
+				continue;
+			}
+			try {
+				result.add(valueOf(item.trim().toUpperCase(Locale.ROOT)));
+			} catch (IllegalArgumentException e) {
+				throw new BadRequestException("Invalid facet - " + item);
+			}
+		}
+		return result;
+	}
+
+}
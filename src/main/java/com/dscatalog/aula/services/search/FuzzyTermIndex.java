@@ -0,0 +1,374 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+/**
+ * Typo-tolerant word index over product names, using symmetric deletes: every
+ * dictionary word is stored under the strings obtained by deleting up to
+ * max-distance characters from its first {@value #PREFIX} characters, and a
+ * query word looks up its own deletes. Candidates are then checked with the
+ * optimal string alignment distance (Levenshtein plus adjacent transpositions).
+ * A product matches when every query word is close to one of its words; the
+ * sum of those distances ranks the results.
+ *
+ * <p>Events that arrive while a rebuild is loading the names are replayed over
+ * the loaded names before the swap, as in {@link ProductNameIndex}.
+ */
+@Component
+public class FuzzyTermIndex {
+
+	static final int PREFIX = 7;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Value("${catalog.search.fuzzy.max-distance:2}")
+	private int maxDistance;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> termIds = new HashMap<>();
+	private final List<String> terms = new ArrayList<>();
+	private final List<LongList> postings = new ArrayList<>();
+	private final Map<String, IntList> deletes = new HashMap<>();
+	private final Map<Long, int[]> productTerms = new HashMap<>();
+	private final List<ProductChangedEvent> replay = new ArrayList<>();
+	private boolean rebuilding;
+	private volatile boolean ready;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			rebuilding = true;
+			replay.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<ProductProjection> list;
+		try {
+			list = repository.searchProductNames();
+		} catch (RuntimeException e) {
+			lock.writeLock().lock();
+			try {
+				rebuilding = false;
+				replay.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		lock.writeLock().lock();
+		try {
+			termIds.clear();
+			terms.clear();
+			postings.clear();
+			deletes.clear();
+			productTerms.clear();
+			for (ProductProjection p : list) {
+				add(p.getId(), p.getName());
+			}
+			for (ProductChangedEvent event : replay) {
+				apply(event);
+			}
+			replay.clear();
+			rebuilding = false;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.isPartial() && event.getProduct().getName() == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			apply(event);
+			if (rebuilding) {
+				replay.add(event);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Returns at most limit product ids matching every word of the query within
+	 * its allowed distance, lowest total distance first, then by id. Returns null
+	 * when the index cannot answer (not built yet, or no words in the query).
+	 */
+	public List<Long> search(String query, int limit) {
+		String[] words = tokenize(query);
+		if (!ready || words.length == 0) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			List<Map<Integer, Integer>> matches = new ArrayList<>(words.length);
+			for (String word : words) {
+				Map<Integer, Integer> match = match(word);
+				if (match.isEmpty()) {
+					return new ArrayList<>();
+				}
+				matches.add(match);
+			}
+			matches.sort(Comparator.comparingLong(this::postingsSize));
+
+			Map<Long, Integer> scores = new HashMap<>();
+			matches.get(0).forEach((termId, distance) -> {
+				LongList list = postings.get(termId);
+				for (int i = 0; i < list.size; i++) {
+					scores.merge(list.values[i], distance, Math::min);
+				}
+			});
+			for (int k = 1; k < matches.size() && !scores.isEmpty(); k++) {
+				Map<Integer, Integer> match = matches.get(k);
+				scores.entrySet().removeIf(entry -> {
+					int best = Integer.MAX_VALUE;
+					for (int termId : productTerms.get(entry.getKey())) {
+						Integer distance = match.get(termId);
+						if (distance != null && distance < best) {
+							best = distance;
+						}
+					}
+					if (best == Integer.MAX_VALUE) {
+						return true;
+					}
+					entry.setValue(entry.getValue() + best);
+					return false;
+				});
+			}
+
+			return scores.entrySet().stream()
+					.sorted(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+					.limit(limit)
+					.map(Map.Entry::getKey)
+					.toList();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Dictionary words within the allowed distance of the query word, by term id.
+	 */
+	private Map<Integer, Integer> match(String word) {
+		int allowed = allowedDistance(word);
+		Map<Integer, Integer> result = new HashMap<>();
+		for (String delete : deletes(prefix(word), allowed)) {
+			IntList candidates = deletes.get(delete);
+			if (candidates == null) {
+				continue;
+			}
+			for (int i = 0; i < candidates.size; i++) {
+				int termId = candidates.values[i];
+				if (!result.containsKey(termId) && postings.get(termId).size > 0) {
+					int distance = distance(word, terms.get(termId), allowed);
+					if (distance <= allowed) {
+						result.put(termId, distance);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private long postingsSize(Map<Integer, Integer> match) {
+		long size = 0;
+		for (int termId : match.keySet()) {
+			size += postings.get(termId).size;
+		}
+		return size;
+	}
+
+	/**
+	 * Short words must match exactly and medium ones within one edit, so that
+	 * "rigns" still finds "rings" without every three-letter word matching "the".
+	 */
+	private int allowedDistance(String word) {
+		int length = word.length();
+		return Math.min(maxDistance, length <= 2 ? 0 : length <= 5 ? 1 : 2);
+	}
+
+	private void apply(ProductChangedEvent event) {
+		remove(event.getId());
+		if (!event.isDeleted()) {
+			add(event.getId(), event.getProduct().getName());
+		}
+	}
+
+	private void add(Long id, String name) {
+		String[] words = tokenize(name);
+		Set<Integer> ids = new HashSet<>();
+		for (String word : words) {
+			Integer termId = termIds.get(word);
+			if (termId == null) {
+				termId = terms.size();
+				termIds.put(word, termId);
+				terms.add(word);
+				postings.add(new LongList());
+				for (String delete : deletes(prefix(word), maxDistance)) {
+					deletes.computeIfAbsent(delete, x -> new IntList()).add(termId);
+				}
+			}
+			if (ids.add(termId)) {
+				postings.get(termId).add(id);
+			}
+		}
+		productTerms.put(id, ids.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Words no longer used by any product keep their id and deletes until the
+	 * next rebuild; searches skip them because their postings are empty.
+	 */
+	private void remove(Long id) {
+		int[] ids = productTerms.remove(id);
+		if (ids == null) {
+			return;
+		}
+		for (int termId : ids) {
+			postings.get(termId).remove(id);
+		}
+	}
+
+	/**
+	 * The words of the query as the index sees them, joined by single spaces;
+	 * queries that normalize alike get the same results.
+	 */
+	public static String normalize(String query) {
+		return String.join(" ", tokenize(query));
+	}
+
+	static String[] tokenize(String name) {
+		if (name == null) {
+			return new String[0];
+		}
+		return Arrays.stream(name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+				.filter(x -> !x.isEmpty())
+				.toArray(String[]::new);
+	}
+
+	private static String prefix(String word) {
+		return word.length() > PREFIX ? word.substring(0, PREFIX) : word;
+	}
+
+	/**
+	 * The word itself plus every string reachable by deleting up to distance characters.
+	 */
+	static Set<String> deletes(String word, int distance) {
+		Set<String> result = new HashSet<>();
+		result.add(word);
+		List<String> level = List.of(word);
+		for (int d = 0; d < distance; d++) {
+			List<String> next = new ArrayList<>();
+			for (String item : level) {
+				for (int i = 0; i < item.length(); i++) {
+					String delete = item.substring(0, i) + item.substring(i + 1);
+					if (result.add(delete)) {
+						next.add(delete);
+					}
+				}
+			}
+			level = next;
+		}
+		return result;
+	}
+
+	/**
+	 * Optimal string alignment distance, giving up with max + 1 as soon as every
+	 * alignment in a row exceeds max.
+	 */
+	static int distance(String a, String b, int max) {
+		if (Math.abs(a.length() - b.length()) > max) {
+			return max + 1;
+		}
+		int[] previous2 = new int[b.length() + 1];
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+				if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+					value = Math.min(value, previous2[j - 2] + 1);
+				}
+				current[j] = value;
+				rowMin = Math.min(rowMin, value);
+			}
+			if (rowMin > max) {
+				return max + 1;
+			}
+			int[] swap = previous2;
+			previous2 = previous;
+			previous = current;
+			current = swap;
+		}
+		return Math.min(previous[b.length()], max + 1);
+	}
+
+	private static final class LongList {
+		private long[] values = new long[2];
+		private int size;
+
+		void add(long value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		void remove(long value) {
+			for (int i = 0; i < size; i++) {
+				if (values[i] == value) {
+					values[i] = values[--size];
+					return;
+				}
+			}
+		}
+	}
+
+	private static final class IntList {
+		private int[] values = new int[2];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+	}
+
+}
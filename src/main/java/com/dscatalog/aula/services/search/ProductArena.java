@@ -0,0 +1,302 @@
+package com.dscatalog.aula.services.search;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.services.exceptions.DirectMemoryBudgetException;
+
+/**
+ * Append-only store of encoded products in direct ByteBuffer chunks, outside the
+ * Java heap. A record is addressed by a long (chunk index in the high 32 bits,
+ * offset in the low 32) and laid out as a fixed header followed by the category
+ * ids and the UTF-8 bytes of the name, lowercased name, description and image
+ * url. Strings of length -1 are null.
+ *
+ * <p>Only one thread appends; readers reach records through the chunk array
+ * captured by a published snapshot, so they never see a record being written.
+ *
+ * <p>Chunks are never freed by hand, as an older snapshot may still be read:
+ * the GC frees one once no snapshot references it. Their total is capped by the
+ * {@link Budget} the arena draws from instead.
+ */
+final class ProductArena {
+
+	static final int CHUNK = 16 << 20;
+
+	private static final int ID = 0;
+	private static final int VERSION = 8;
+	private static final int PRICE = 16;
+	private static final int SECONDS = 24;
+	private static final int NANOS = 32;
+	private static final int FLAGS = 36;
+	private static final int CATEGORIES = 37;
+	private static final int NAME = 39;
+	private static final int LOWER = 43;
+	private static final int DESCRIPTION = 47;
+	private static final int IMG_URL = 51;
+	private static final int HEADER = 55;
+
+	private static final int NO_PRICE = 1;
+	private static final int NO_DATE = 2;
+	private static final int NO_VERSION = 4;
+
+	private final Budget budget;
+	private ByteBuffer[] chunks = new ByteBuffer[0];
+	private int position = CHUNK;
+	private long bytes;
+
+	ProductArena(Budget budget) {
+		this.budget = budget;
+	}
+
+	Budget budget() {
+		return budget;
+	}
+
+	/**
+	 * Chunks written so far. Records appended later may land in a chunk of this
+	 * array, but never at an address handed out before.
+	 */
+	ByteBuffer[] chunks() {
+		return chunks;
+	}
+
+	/**
+	 * Off-heap bytes held by the arena, live or not.
+	 */
+	long bytes() {
+		return bytes;
+	}
+
+	long append(ProductDTO dto) {
+		byte[] name = utf8(dto.getName());
+		byte[] lower = utf8(dto.getName() == null ? null : ProductNameIndex.normalize(dto.getName()));
+		byte[] description = utf8(dto.getDescription());
+		byte[] imgUrl = utf8(dto.getImgUrl());
+		int size = HEADER + 8 * dto.getCategories().size() + length(name) + length(lower) + length(description)
+				+ length(imgUrl);
+
+		long address = reserve(size);
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		int offset = (int) address;
+		int flags = (dto.getPrice() == null ? NO_PRICE : 0) | (dto.getDate() == null ? NO_DATE : 0)
+				| (dto.getVersion() == null ? NO_VERSION : 0);
+		chunk.putLong(offset + ID, dto.getId());
+		chunk.putLong(offset + VERSION, dto.getVersion() == null ? 0 : dto.getVersion());
+		chunk.putDouble(offset + PRICE, dto.getPrice() == null ? 0 : dto.getPrice());
+		chunk.putLong(offset + SECONDS, dto.getDate() == null ? 0 : dto.getDate().getEpochSecond());
+		chunk.putInt(offset + NANOS, dto.getDate() == null ? 0 : dto.getDate().getNano());
+		chunk.put(offset + FLAGS, (byte) flags);
+		chunk.putShort(offset + CATEGORIES, (short) dto.getCategories().size());
+		chunk.putInt(offset + NAME, name == null ? -1 : name.length);
+		chunk.putInt(offset + LOWER, lower == null ? -1 : lower.length);
+		chunk.putInt(offset + DESCRIPTION, description == null ? -1 : description.length);
+		chunk.putInt(offset + IMG_URL, imgUrl == null ? -1 : imgUrl.length);
+		int p = offset + HEADER;
+		for (CategoryDTO category : dto.getCategories()) {
+			chunk.putLong(p, category.getId());
+			p += 8;
+		}
+		for (byte[] value : new byte[][] { name, lower, description, imgUrl }) {
+			if (value != null) {
+				chunk.put(p, value);
+				p += value.length;
+			}
+		}
+		return address;
+	}
+
+	/**
+	 * Copies a record of another arena as is, for compaction.
+	 */
+	long copy(ByteBuffer[] from, long address) {
+		ByteBuffer source = from[(int) (address >>> 32)];
+		int offset = (int) address;
+		int size = size(source, offset);
+		long target = reserve(size);
+		chunks[(int) (target >>> 32)].put((int) target, source, offset, size);
+		return target;
+	}
+
+	private long reserve(int size) {
+		if (position + size > CHUNK || chunks.length == 0) {
+			ByteBuffer chunk = budget.allocate(Math.max(CHUNK, size));
+			chunks = Arrays.copyOf(chunks, chunks.length + 1);
+			chunks[chunks.length - 1] = chunk;
+			position = 0;
+			bytes += chunk.capacity();
+		}
+		long address = ((long) (chunks.length - 1) << 32) | position;
+		position += size;
+		return address;
+	}
+
+	static long id(ByteBuffer[] chunks, long address) {
+		return chunks[(int) (address >>> 32)].getLong((int) address + ID);
+	}
+
+	static Long version(ByteBuffer[] chunks, long address) {
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		if ((chunk.get((int) address + FLAGS) & NO_VERSION) != 0) {
+			return null;
+		}
+		return chunk.getLong((int) address + VERSION);
+	}
+
+	static Double price(ByteBuffer[] chunks, long address) {
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		int offset = (int) address;
+		return (chunk.get(offset + FLAGS) & NO_PRICE) != 0 ? null : chunk.getDouble(offset + PRICE);
+	}
+
+	static Instant date(ByteBuffer[] chunks, long address) {
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		int offset = (int) address;
+		return (chunk.get(offset + FLAGS) & NO_DATE) != 0 ? null
+				: Instant.ofEpochSecond(chunk.getLong(offset + SECONDS), chunk.getInt(offset + NANOS));
+	}
+
+	static long[] categoryIds(ByteBuffer[] chunks, long address) {
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		int offset = (int) address;
+		long[] result = new long[chunk.getShort(offset + CATEGORIES)];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = chunk.getLong(offset + HEADER + 8 * i);
+		}
+		return result;
+	}
+
+	static String name(ByteBuffer[] chunks, long address) {
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		int offset = (int) address;
+		return string(chunk, strings(chunk, offset), chunk.getInt(offset + NAME));
+	}
+
+	/**
+	 * Whether the lowercased name contains the UTF-8 bytes of a lowercased term.
+	 * Matching bytes is the same as matching characters, as UTF-8 sequences
+	 * never start inside another one.
+	 */
+	static boolean nameContains(ByteBuffer[] chunks, long address, byte[] term) {
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		int offset = (int) address;
+		int length = chunk.getInt(offset + LOWER);
+		if (length < 0) {
+			return false;
+		}
+		int start = strings(chunk, offset) + Math.max(0, chunk.getInt(offset + NAME));
+		outer: for (int i = start; i + term.length <= start + length; i++) {
+			for (int j = 0; j < term.length; j++) {
+				if (chunk.get(i + j) != term[j]) {
+					continue outer;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	static ProductDTO decode(ByteBuffer[] chunks, long address, Map<Long, String> categoryNames) {
+		ByteBuffer chunk = chunks[(int) (address >>> 32)];
+		int offset = (int) address;
+		int p = strings(chunk, offset);
+		int nameLength = chunk.getInt(offset + NAME);
+		String name = string(chunk, p, nameLength);
+		p += Math.max(0, nameLength) + Math.max(0, chunk.getInt(offset + LOWER));
+		int descriptionLength = chunk.getInt(offset + DESCRIPTION);
+		String description = string(chunk, p, descriptionLength);
+		p += Math.max(0, descriptionLength);
+		String imgUrl = string(chunk, p, chunk.getInt(offset + IMG_URL));
+
+		ProductDTO dto = new ProductDTO(id(chunks, address), name, description, price(chunks, address), imgUrl,
+				date(chunks, address));
+		dto.setVersion(version(chunks, address));
+		for (long categoryId : categoryIds(chunks, address)) {
+			dto.getCategories().add(new CategoryDTO(categoryId, categoryNames.get(categoryId)));
+		}
+		return dto;
+	}
+
+	static int size(ByteBuffer[] chunks, long address) {
+		return size(chunks[(int) (address >>> 32)], (int) address);
+	}
+
+	private static int strings(ByteBuffer chunk, int offset) {
+		return offset + HEADER + 8 * chunk.getShort(offset + CATEGORIES);
+	}
+
+	private static int size(ByteBuffer chunk, int offset) {
+		int size = strings(chunk, offset) - offset;
+		for (int field : new int[] { NAME, LOWER, DESCRIPTION, IMG_URL }) {
+			size += Math.max(0, chunk.getInt(offset + field));
+		}
+		return size;
+	}
+
+	private static String string(ByteBuffer chunk, int position, int length) {
+		if (length < 0) {
+			return null;
+		}
+		byte[] value = new byte[length];
+		chunk.get(position, value);
+		return new String(value, StandardCharsets.UTF_8);
+	}
+
+	static byte[] utf8(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int length(byte[] value) {
+		return value == null ? 0 : value.length;
+	}
+
+	/**
+	 * Direct bytes the arenas sharing it may hold at once, counted from the
+	 * allocation of a chunk until the GC collects it. An arena asking for more
+	 * fails with IllegalStateException; while a snapshot is patched or compacted,
+	 * the chunks of the one being replaced count too.
+	 */
+	static final class Budget {
+
+		static final Budget UNLIMITED = new Budget(Long.MAX_VALUE);
+
+		private static final Cleaner CLEANER = Cleaner.create();
+
+		private final long max;
+		private final AtomicLong used = new AtomicLong();
+
+		Budget(long max) {
+			this.max = max;
+		}
+
+		long used() {
+			return used.get();
+		}
+
+		ByteBuffer allocate(int capacity) {
+			if (used.addAndGet(capacity) > max) {
+				used.addAndGet(-capacity);
+				throw new DirectMemoryBudgetException("Direct memory budget exceeded - " + max + " bytes");
+			}
+			ByteBuffer chunk;
+			try {
+				chunk = ByteBuffer.allocateDirect(capacity);
+			} catch (OutOfMemoryError e) {
+				used.addAndGet(-capacity);
+				throw e;
+			}
+			AtomicLong counter = used;
+			CLEANER.register(chunk, () -> counter.addAndGet(-capacity));
+			return chunk;
+		}
+
+	}
+
+}
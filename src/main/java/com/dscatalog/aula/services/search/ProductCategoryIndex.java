@@ -0,0 +1,183 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.projections.ProductCategoryProjection;
+import com.dscatalog.aula.repositories.CategoryMode;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+import com.dscatalog.aula.utils.RoaringBitmap;
+
+/**
+ * In-memory bitmap of the products of each category. Answers any/all/none
+ * category filters by intersecting bitmaps, so the search query can filter by
+ * primary key instead of joining tb_product_category and grouping.
+ * Bulk patches that leave the categories alone are skipped.
+ *
+ * <p>Events that arrive while a rebuild is loading the links are replayed over
+ * the loaded links before the swap, as in {@link ProductNameIndex}.
+ */
+@Component
+public class ProductCategoryIndex {
+
+	@Autowired
+	private ProductRepository repository;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, RoaringBitmap> members = new HashMap<>();
+	private final List<ProductChangedEvent> replay = new ArrayList<>();
+	private boolean rebuilding;
+	private volatile boolean ready;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			rebuilding = true;
+			replay.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<ProductCategoryProjection> list;
+		try {
+			list = repository.searchProductCategories();
+		} catch (RuntimeException e) {
+			lock.writeLock().lock();
+			try {
+				rebuilding = false;
+				replay.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		lock.writeLock().lock();
+		try {
+			members.clear();
+			for (ProductCategoryProjection p : list) {
+				members.computeIfAbsent(p.getCategoryId(), x -> new RoaringBitmap()).add(p.getId());
+			}
+			for (ProductChangedEvent event : replay) {
+				apply(event);
+			}
+			replay.clear();
+			rebuilding = false;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.isPartial() && !event.hasCategories()) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			apply(event);
+			if (rebuilding) {
+				replay.add(event);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids of the products in any or all of the category ids (in at
+	 * least one category when there are none) and in none of the excluded ones,
+	 * or null while the index is building.
+	 */
+	public RoaringBitmap select(List<Long> categoryIds, CategoryMode mode, List<Long> excludedCategoryIds) {
+		if (!ready) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			RoaringBitmap result;
+			if (categoryIds.isEmpty()) {
+				result = union(members.keySet());
+			} else if (mode == CategoryMode.ALL) {
+				result = null;
+				for (Long categoryId : categoryIds) {
+					RoaringBitmap bitmap = members.getOrDefault(categoryId, new RoaringBitmap());
+					result = result == null ? bitmap.copy() : RoaringBitmap.and(result, bitmap);
+				}
+			} else {
+				result = union(categoryIds);
+			}
+			if (!excludedCategoryIds.isEmpty() && !result.isEmpty()) {
+				result = RoaringBitmap.andNot(result, union(excludedCategoryIds));
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns, per category with at least one of the given products, how many of
+	 * them it holds, or null while the index is building.
+	 */
+	public Map<Long, Long> count(RoaringBitmap products) {
+		if (!ready) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			Map<Long, Long> result = new HashMap<>();
+			members.forEach((categoryId, bitmap) -> {
+				long count = RoaringBitmap.and(bitmap, products).cardinality();
+				if (count > 0) {
+					result.put(categoryId, count);
+				}
+			});
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	private void apply(ProductChangedEvent event) {
+		remove(event.getId());
+		if (!event.isDeleted()) {
+			for (CategoryDTO category : event.getProduct().getCategories()) {
+				members.computeIfAbsent(category.getId(), x -> new RoaringBitmap()).add(event.getId());
+			}
+		}
+	}
+
+	private void remove(Long id) {
+		for (RoaringBitmap bitmap : members.values()) {
+			bitmap.remove(id);
+		}
+	}
+
+	private RoaringBitmap union(Iterable<Long> categoryIds) {
+		RoaringBitmap result = new RoaringBitmap();
+		for (Long categoryId : categoryIds) {
+			RoaringBitmap bitmap = members.get(categoryId);
+			if (bitmap != null) {
+				result = RoaringBitmap.or(result, bitmap);
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.dscatalog.aula.services.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.dscatalog.aula.services.exceptions.BadRequestException;
+
+/**
+ * Opaque keyset position for product listings ordered by (name, id).
+ * Encoded as url-safe base64 of "id:name".
+ */
+public class ProductCursor {
+
+	public static final ProductCursor START = new ProductCursor("", 0L);
+
+	private final String name;
+	private final Long id;
+
+	public ProductCursor(String name, Long id) {
+		this.name = name;
+		this.id = id;
+	}
+
+	public static ProductCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return START;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int sep = raw.indexOf(':');
+			return new ProductCursor(raw.substring(sep + 1), Long.parseLong(raw.substring(0, sep)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new BadRequestException("Invalid cursor - " + token);
+		}
+	}
+
+	public String encode() {
+		String raw = id + ":" + name;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+}
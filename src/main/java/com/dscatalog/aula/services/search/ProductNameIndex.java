@@ -0,0 +1,202 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+/**
+ * In-memory trigram index over product names. Answers "name contains term"
+ * with the exact set of matching product ids, so the search query can filter
+ * by primary key instead of scanning tb_product with LIKE '%term%'.
+ *
+ * <p>Events that arrive while a rebuild is loading the names are applied as
+ * usual and also kept, then replayed over the loaded names before the swap, so
+ * a write committed during the load is never lost to an older read.
+ */
+@Component
+public class ProductNameIndex {
+
+	static final int GRAM = 3;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Set<Long>> postings = new HashMap<>();
+	private final Map<Long, String> names = new HashMap<>();
+	private final List<ProductChangedEvent> replay = new ArrayList<>();
+	private boolean rebuilding;
+	private volatile boolean ready;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			rebuilding = true;
+			replay.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<ProductProjection> list;
+		try {
+			list = repository.searchProductNames();
+		} catch (RuntimeException e) {
+			lock.writeLock().lock();
+			try {
+				rebuilding = false;
+				replay.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		lock.writeLock().lock();
+		try {
+			postings.clear();
+			names.clear();
+			for (ProductProjection p : list) {
+				add(p.getId(), p.getName());
+			}
+			for (ProductChangedEvent event : replay) {
+				apply(event);
+			}
+			replay.clear();
+			rebuilding = false;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.isPartial() && event.getProduct().getName() == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			apply(event);
+			if (rebuilding) {
+				replay.add(event);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids of all products whose name contains the given term,
+	 * ignoring case, or null when the index cannot answer (not built yet,
+	 * term shorter than a trigram or containing LIKE wildcards).
+	 */
+	public Set<Long> candidates(String name) {
+		String term = normalize(name);
+		if (!ready || term.length() < GRAM || term.indexOf('%') >= 0 || term.indexOf('_') >= 0) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			List<Set<Long>> lists = new ArrayList<>();
+			for (String gram : grams(term)) {
+				Set<Long> list = postings.get(gram);
+				if (list == null) {
+					return new HashSet<>();
+				}
+				lists.add(list);
+			}
+			lists.sort(Comparator.comparingInt(Set::size));
+
+			Set<Long> result = new HashSet<>();
+			for (Long id : lists.get(0)) {
+				if (containsInAll(lists, id) && names.get(id).contains(term)) {
+					result.add(id);
+				}
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return names.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void apply(ProductChangedEvent event) {
+		remove(event.getId());
+		if (!event.isDeleted()) {
+			add(event.getId(), event.getProduct().getName());
+		}
+	}
+
+	private void add(Long id, String name) {
+		String term = normalize(name);
+		names.put(id, term);
+		for (String gram : grams(term)) {
+			postings.computeIfAbsent(gram, x -> new HashSet<>()).add(id);
+		}
+	}
+
+	private void remove(Long id) {
+		String term = names.remove(id);
+		if (term == null) {
+			return;
+		}
+		for (String gram : grams(term)) {
+			Set<Long> list = postings.get(gram);
+			if (list != null) {
+				list.remove(id);
+				if (list.isEmpty()) {
+					postings.remove(gram);
+				}
+			}
+		}
+	}
+
+	private static boolean containsInAll(List<Set<Long>> lists, Long id) {
+		for (int i = 1; i < lists.size(); i++) {
+			if (!lists.get(i).contains(id)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static Set<String> grams(String term) {
+		Set<String> result = new HashSet<>();
+		for (int i = 0; i + GRAM <= term.length(); i++) {
+			result.add(term.substring(i, i + GRAM));
+		}
+		return result;
+	}
+
+	static String normalize(String name) {
+		return name == null ? "" : name.toLowerCase(Locale.ROOT);
+	}
+
+}
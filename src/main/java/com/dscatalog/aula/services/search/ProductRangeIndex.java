@@ -0,0 +1,378 @@
+package com.dscatalog.aula.services.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductRangeProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.repositories.ProductSearchRange;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+/**
+ * Price and date of every product as primitive columns in id order: a
+ * double[] (NaN for no price) and a long[] of epoch microseconds (Long.MIN_VALUE
+ * for no date). Range filters are evaluated over the columns a 64-row word at
+ * a time, with branch-free comparisons, into a bitmap of matching rows.
+ *
+ * <p>Events that arrive while a rebuild is loading the columns are replayed
+ * over the loaded columns before the swap, as in {@link ProductNameIndex}.
+ */
+@Component
+public class ProductRangeIndex {
+
+	static final long NO_DATE = Long.MIN_VALUE;
+
+	/**
+	 * Below this many candidates per row, they are looked up one by one
+	 * instead of scanning the columns.
+	 */
+	private static final int LOOKUP_RATIO = 64;
+
+	@Autowired
+	private ProductRepository repository;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private long[] ids = new long[0];
+	private double[] prices = new double[0];
+	private long[] dates = new long[0];
+	private int size;
+	private final List<ProductChangedEvent> replay = new ArrayList<>();
+	private boolean rebuilding;
+	private volatile boolean ready;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			rebuilding = true;
+			replay.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<ProductRangeProjection> list;
+		try {
+			list = repository.searchProductRanges();
+		} catch (RuntimeException e) {
+			lock.writeLock().lock();
+			try {
+				rebuilding = false;
+				replay.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		lock.writeLock().lock();
+		try {
+			size = list.size();
+			ids = new long[size];
+			prices = new double[size];
+			dates = new long[size];
+			for (int i = 0; i < size; i++) {
+				ProductRangeProjection p = list.get(i);
+				ids[i] = p.getId();
+				prices[i] = price(p.getPrice());
+				dates[i] = date(p.getDate());
+			}
+			for (ProductChangedEvent event : replay) {
+				apply(event);
+			}
+			replay.clear();
+			rebuilding = false;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		lock.writeLock().lock();
+		try {
+			apply(event);
+			if (rebuilding) {
+				replay.add(event);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns, in ascending order, the ids among the sorted candidates (every
+	 * product when null) whose price and date fall in the range. Returns null
+	 * while the index is building, or when there are no candidates and more than
+	 * limit products match.
+	 */
+	public long[] select(ProductSearchRange range, long[] candidates, int limit) {
+		if (!ready) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			if (candidates != null && candidates.length < size / LOOKUP_RATIO) {
+				return lookup(range, candidates);
+			}
+			long[] words = scan(range);
+			if (candidates != null) {
+				return retain(words, candidates);
+			}
+			long count = 0;
+			for (long word : words) {
+				count += Long.bitCount(word);
+			}
+			if (count > limit) {
+				return null;
+			}
+			long[] result = new long[(int) count];
+			int n = 0;
+			for (int w = 0; w < words.length; w++) {
+				for (long word = words[w]; word != 0; word &= word - 1) {
+					result[n++] = ids[(w << 6) + Long.numberOfTrailingZeros(word)];
+				}
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Counts the sorted candidates per price bucket, bucket i holding prices from
+	 * boundaries[i] up to boundaries[i + 1] (open ended for the last one).
+	 * Products priced below the first boundary or without a price are left out.
+	 * Returns null while the index is building.
+	 */
+	public long[] countPrices(double[] boundaries, long[] candidates) {
+		if (!ready) {
+			return null;
+		}
+		lock.readLock().lock();
+		try {
+			long[] counts = new long[boundaries.length];
+			int i = 0;
+			boolean lookup = candidates.length < size / LOOKUP_RATIO;
+			for (long id : candidates) {
+				if (lookup) {
+					i = Math.max(0, Arrays.binarySearch(ids, 0, size, id));
+				} else {
+					while (i < size && ids[i] < id) {
+						i++;
+					}
+				}
+				if (i < size && ids[i] == id) {
+					int bucket = bucket(boundaries, prices[i]);
+					if (bucket >= 0) {
+						counts[bucket]++;
+					}
+				}
+			}
+			return counts;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Last boundary at or below the price, -1 when there is none or no price.
+	 */
+	static int bucket(double[] boundaries, double price) {
+		int result = -1;
+		for (int b = 0; b < boundaries.length && price >= boundaries[b]; b++) {
+			result = b;
+		}
+		return result;
+	}
+
+	/**
+	 * Bitmap of the rows in the range, one bit per row.
+	 */
+	private long[] scan(ProductSearchRange range) {
+		long[] words = new long[(size + 63) >>> 6];
+		Arrays.fill(words, -1L);
+		if (range.minPrice() != null || range.maxPrice() != null) {
+			filterPrices(prices, size, minPrice(range), maxPrice(range), words);
+		}
+		if (range.fromDate() != null || range.toDate() != null) {
+			filterDates(dates, size, fromDate(range), toDate(range), words);
+		}
+		if ((size & 63) != 0) {
+			words[words.length - 1] &= (1L << size) - 1;
+		}
+		return words;
+	}
+
+	private long[] lookup(ProductSearchRange range, long[] candidates) {
+		boolean byPrice = range.minPrice() != null || range.maxPrice() != null;
+		boolean byDate = range.fromDate() != null || range.toDate() != null;
+		double minPrice = minPrice(range), maxPrice = maxPrice(range);
+		long fromDate = fromDate(range), toDate = toDate(range);
+		long[] result = new long[candidates.length];
+		int n = 0;
+		for (long id : candidates) {
+			int i = Arrays.binarySearch(ids, 0, size, id);
+			if (i >= 0 && (!byPrice || (prices[i] >= minPrice && prices[i] <= maxPrice))
+					&& (!byDate || (dates[i] >= fromDate && dates[i] <= toDate))) {
+				result[n++] = id;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * Walks the sorted candidates and the id column together.
+	 */
+	private long[] retain(long[] words, long[] candidates) {
+		long[] result = new long[candidates.length];
+		int n = 0;
+		int i = 0;
+		for (long id : candidates) {
+			while (i < size && ids[i] < id) {
+				i++;
+			}
+			if (i < size && ids[i] == id && (words[i >>> 6] & (1L << i)) != 0) {
+				result[n++] = id;
+			}
+		}
+		return Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * ANDs the rows whose price is in [min, max] into the bitmap. NaN never
+	 * matches. The comparison result is shifted in rather than branched on, so
+	 * the loop has no data-dependent jumps.
+	 */
+	static void filterPrices(double[] prices, int size, double min, double max, long[] words) {
+		for (int w = 0, base = 0; base < size; w++, base += 64) {
+			int end = Math.min(64, size - base);
+			long word = 0;
+			for (int j = 0; j < end; j++) {
+				double price = prices[base + j];
+				word |= (price >= min & price <= max ? 1L : 0L) << j;
+			}
+			words[w] &= word;
+		}
+	}
+
+	/**
+	 * Same as filterPrices for the date column.
+	 */
+	static void filterDates(long[] dates, int size, long from, long to, long[] words) {
+		for (int w = 0, base = 0; base < size; w++, base += 64) {
+			int end = Math.min(64, size - base);
+			long word = 0;
+			for (int j = 0; j < end; j++) {
+				long date = dates[base + j];
+				word |= (date >= from & date <= to ? 1L : 0L) << j;
+			}
+			words[w] &= word;
+		}
+	}
+
+	private void apply(ProductChangedEvent event) {
+		int i = Arrays.binarySearch(ids, 0, size, event.getId());
+		if (event.isDeleted()) {
+			if (i >= 0) {
+				remove(i);
+			}
+			return;
+		}
+		ProductDTO product = event.getProduct();
+		if (i < 0) {
+			if (event.isPartial()) {
+				return;
+			}
+			i = insert(-i - 1, event.getId());
+		}
+		if (!event.isPartial() || product.getPrice() != null) {
+			prices[i] = price(product.getPrice());
+		}
+		if (!event.isPartial() || product.getDate() != null) {
+			dates[i] = date(product.getDate());
+		}
+	}
+
+	private int insert(int i, long id) {
+		if (size == ids.length) {
+			int capacity = Math.max(16, size + (size >> 1));
+			ids = Arrays.copyOf(ids, capacity);
+			prices = Arrays.copyOf(prices, capacity);
+			dates = Arrays.copyOf(dates, capacity);
+		}
+		System.arraycopy(ids, i, ids, i + 1, size - i);
+		System.arraycopy(prices, i, prices, i + 1, size - i);
+		System.arraycopy(dates, i, dates, i + 1, size - i);
+		ids[i] = id;
+		size++;
+		return i;
+	}
+
+	private void remove(int i) {
+		System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+		System.arraycopy(prices, i + 1, prices, i, size - i - 1);
+		System.arraycopy(dates, i + 1, dates, i, size - i - 1);
+		size--;
+	}
+
+	private static double minPrice(ProductSearchRange range) {
+		return range.minPrice() == null ? Double.NEGATIVE_INFINITY : range.minPrice();
+	}
+
+	private static double maxPrice(ProductSearchRange range) {
+		return range.maxPrice() == null ? Double.POSITIVE_INFINITY : range.maxPrice();
+	}
+
+	/**
+	 * Lowest date matching the range, rounded up to the microsecond; never
+	 * NO_DATE, so products without a date are left out.
+	 */
+	private static long fromDate(ProductSearchRange range) {
+		if (range.fromDate() == null) {
+			return NO_DATE + 1;
+		}
+		Instant from = range.fromDate();
+		long micros = micros(from);
+		return Math.max(NO_DATE + 1, micros == Long.MAX_VALUE || from.getNano() % 1000 == 0 ? micros : micros + 1);
+	}
+
+	private static long toDate(ProductSearchRange range) {
+		return range.toDate() == null ? Long.MAX_VALUE : micros(range.toDate());
+	}
+
+	static double price(Double price) {
+		return price == null ? Double.NaN : price;
+	}
+
+	static long date(Instant date) {
+		return date == null ? NO_DATE : micros(date);
+	}
+
+	/**
+	 * Epoch microseconds rounded down, saturating at the long range.
+	 */
+	static long micros(Instant instant) {
+		long seconds = instant.getEpochSecond();
+		if (seconds >= Long.MAX_VALUE / 1_000_000) {
+			return Long.MAX_VALUE;
+		}
+		if (seconds <= Long.MIN_VALUE / 1_000_000) {
+			return NO_DATE + 1;
+		}
+		return seconds * 1_000_000 + instant.getNano() / 1000;
+	}
+
+}
@@ -0,0 +1,423 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+/**
+ * Radix trie over normalized product names (lower case, single spaces) for
+ * prefix autocomplete. Every node keeps the highest weight below it, so the top
+ * completions are found best-first without visiting the whole subtree. A name
+ * weighs the number of products carrying it plus their detail views since
+ * startup; views are folded in by a background drain so reads never wait on them.
+ *
+ * <p>Events that arrive while a rebuild is loading the names are replayed over
+ * the loaded names before the swap, as in {@link ProductNameIndex}.
+ */
+@Component
+public class ProductSuggestIndex {
+
+	public static final int MAX_LIMIT = 50;
+
+	static final int VIEW_BATCH = 256;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private TaskExecutor taskExecutor;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Node root = new Node("");
+	private final Map<String, Completion> completions = new HashMap<>();
+	private final Map<Long, String> productKeys = new HashMap<>();
+	private final Map<Long, Long> productViews = new HashMap<>();
+	private final Map<Long, Long> pendingViews = new ConcurrentHashMap<>();
+	private final AtomicBoolean draining = new AtomicBoolean();
+	private final List<ProductChangedEvent> replay = new ArrayList<>();
+	private boolean rebuilding;
+	private volatile boolean ready;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			rebuilding = true;
+			replay.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		List<ProductProjection> list;
+		try {
+			list = repository.searchProductNames();
+		} catch (RuntimeException e) {
+			lock.writeLock().lock();
+			try {
+				rebuilding = false;
+				replay.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+			throw e;
+		}
+		lock.writeLock().lock();
+		try {
+			root.children = Node.NONE;
+			root.text = null;
+			root.max = 0;
+			completions.clear();
+			productKeys.clear();
+			for (ProductProjection p : list) {
+				add(p.getId(), p.getName());
+			}
+			for (ProductChangedEvent event : replay) {
+				apply(event);
+			}
+			replay.clear();
+			rebuilding = false;
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.isPartial() && event.getProduct().getName() == null) {
+			return;
+		}
+		lock.writeLock().lock();
+		try {
+			apply(event);
+			if (rebuilding) {
+				replay.add(event);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Counts a view of the product; it reaches the weights shortly after.
+	 */
+	public void recordView(Long id) {
+		pendingViews.merge(id, 1L, Long::sum);
+		if (draining.compareAndSet(false, true)) {
+			taskExecutor.execute(this::drainViews);
+		}
+	}
+
+	/**
+	 * Returns up to limit product names starting with the prefix, heaviest
+	 * first, then in alphabetical order. Empty while the index is building or
+	 * when the prefix is blank.
+	 */
+	public List<String> suggest(String prefix, int limit) {
+		String key = normalize(prefix);
+		List<String> result = new ArrayList<>();
+		if (!ready || key.isEmpty() || limit <= 0) {
+			return result;
+		}
+		lock.readLock().lock();
+		try {
+			Node node = root;
+			String path = "";
+			int offset = 0;
+			while (offset < key.length()) {
+				Node child = node.child(key.charAt(offset));
+				if (child == null || !matches(child.label, key, offset)) {
+					return result;
+				}
+				path += child.label;
+				offset += child.label.length();
+				node = child;
+			}
+
+			PriorityQueue<Candidate> queue = new PriorityQueue<>();
+			queue.add(new Candidate(node.max, path, node, null));
+			while (!queue.isEmpty() && result.size() < limit) {
+				Candidate candidate = queue.poll();
+				Node current = candidate.node();
+				if (current == null) {
+					result.add(candidate.text());
+					continue;
+				}
+				if (current.text != null) {
+					queue.add(new Candidate(current.weight, candidate.path(), null, current.text));
+				}
+				for (Node child : current.children) {
+					queue.add(new Candidate(child.max, candidate.path() + child.label, child, null));
+				}
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Folds pending views in batches of {@value #VIEW_BATCH} ids per write lock, so
+	 * suggestions queued behind a large backlog wait for one batch at most.
+	 */
+	private void drainViews() {
+		try {
+			while (!pendingViews.isEmpty()) {
+				List<Long> ids = new ArrayList<>(VIEW_BATCH);
+				for (Long id : pendingViews.keySet()) {
+					if (ids.size() == VIEW_BATCH) {
+						break;
+					}
+					ids.add(id);
+				}
+				lock.writeLock().lock();
+				try {
+					for (Long id : ids) {
+						Long views = pendingViews.remove(id);
+						String key = productKeys.get(id);
+						if (views == null || key == null) {
+							continue;
+						}
+						productViews.merge(id, views, Long::sum);
+						Completion completion = completions.get(key);
+						completion.views += views;
+						put(root, key, 0, completion);
+					}
+				} finally {
+					lock.writeLock().unlock();
+				}
+			}
+		} finally {
+			draining.set(false);
+			if (!pendingViews.isEmpty() && draining.compareAndSet(false, true)) {
+				taskExecutor.execute(this::drainViews);
+			}
+		}
+	}
+
+	private void apply(ProductChangedEvent event) {
+		remove(event.getId());
+		if (event.isDeleted()) {
+			productViews.remove(event.getId());
+		} else {
+			add(event.getId(), event.getProduct().getName());
+		}
+	}
+
+	private void add(Long id, String name) {
+		String key = normalize(name);
+		if (key.isEmpty()) {
+			return;
+		}
+		productKeys.put(id, key);
+		Completion completion = completions.computeIfAbsent(key, x -> new Completion(name.trim().replaceAll("\\s+", " ")));
+		completion.products++;
+		completion.views += productViews.getOrDefault(id, 0L);
+		put(root, key, 0, completion);
+	}
+
+	private void remove(Long id) {
+		String key = productKeys.remove(id);
+		if (key == null) {
+			return;
+		}
+		Completion completion = completions.get(key);
+		completion.products--;
+		completion.views -= productViews.getOrDefault(id, 0L);
+		if (completion.products == 0) {
+			completions.remove(key);
+			delete(root, key, 0);
+		} else {
+			put(root, key, 0, completion);
+		}
+	}
+
+	/**
+	 * Stores the completion under key, splitting an edge where the key leaves it.
+	 */
+	private static void put(Node node, String key, int offset, Completion completion) {
+		if (offset == key.length()) {
+			node.text = completion.text;
+			node.weight = completion.weight();
+		} else {
+			Node child = node.child(key.charAt(offset));
+			if (child == null) {
+				child = new Node(key.substring(offset));
+				child.text = completion.text;
+				child.weight = completion.weight();
+				child.max = child.weight;
+				node.insert(child);
+			} else {
+				int common = commonPrefix(child.label, key, offset);
+				if (common < child.label.length()) {
+					Node split = new Node(child.label.substring(0, common));
+					node.replace(split);
+					child.label = child.label.substring(common);
+					split.children = new Node[] { child };
+					split.max = child.max;
+					child = split;
+				}
+				put(child, key, offset + common, completion);
+			}
+		}
+		node.updateMax();
+	}
+
+	/**
+	 * Removes the completion stored under key, merging edges left with a single child.
+	 */
+	private static void delete(Node node, String key, int offset) {
+		if (offset == key.length()) {
+			node.text = null;
+			node.weight = 0;
+		} else {
+			Node child = node.child(key.charAt(offset));
+			if (child == null || !matches(child.label, key, offset)) {
+				return;
+			}
+			delete(child, key, offset + child.label.length());
+			if (child.text == null && child.children.length == 0) {
+				node.removeChild(child);
+			} else if (child.text == null && child.children.length == 1) {
+				Node only = child.children[0];
+				only.label = child.label + only.label;
+				node.replace(only);
+			}
+		}
+		node.updateMax();
+	}
+
+	private static boolean matches(String label, String key, int offset) {
+		int length = Math.min(label.length(), key.length() - offset);
+		return key.regionMatches(offset, label, 0, length);
+	}
+
+	private static int commonPrefix(String label, String key, int offset) {
+		int i = 0;
+		while (i < label.length() && offset + i < key.length() && label.charAt(i) == key.charAt(offset + i)) {
+			i++;
+		}
+		return i;
+	}
+
+	static String normalize(String name) {
+		return name == null ? "" : name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+	}
+
+	private static final class Completion {
+		private final String text;
+		private int products;
+		private long views;
+
+		Completion(String text) {
+			this.text = text;
+		}
+
+		long weight() {
+			return products + views;
+		}
+	}
+
+	private static final class Node {
+		private static final Node[] NONE = new Node[0];
+
+		private String label;
+		private Node[] children = NONE;
+		private String text;
+		private long weight;
+		private long max;
+
+		Node(String label) {
+			this.label = label;
+		}
+
+		Node child(char c) {
+			int i = indexOf(c);
+			return i >= 0 ? children[i] : null;
+		}
+
+		void insert(Node child) {
+			int i = -indexOf(child.label.charAt(0)) - 1;
+			Node[] next = new Node[children.length + 1];
+			System.arraycopy(children, 0, next, 0, i);
+			next[i] = child;
+			System.arraycopy(children, i, next, i + 1, children.length - i);
+			children = next;
+		}
+
+		void replace(Node child) {
+			children[indexOf(child.label.charAt(0))] = child;
+		}
+
+		void removeChild(Node child) {
+			int i = indexOf(child.label.charAt(0));
+			Node[] next = Arrays.copyOf(children, children.length - 1);
+			System.arraycopy(children, i + 1, next, i, children.length - i - 1);
+			children = next;
+		}
+
+		void updateMax() {
+			long result = text != null ? weight : 0;
+			for (Node child : children) {
+				result = Math.max(result, child.max);
+			}
+			max = result;
+		}
+
+		private int indexOf(char c) {
+			int low = 0;
+			int high = children.length - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				char value = children[mid].label.charAt(0);
+				if (value < c) {
+					low = mid + 1;
+				} else if (value > c) {
+					high = mid - 1;
+				} else {
+					return mid;
+				}
+			}
+			return -(low + 1);
+		}
+	}
+
+	/**
+	 * A subtree bounded by its max weight, or a completion when node is null.
+	 * Ordered by weight descending, then path: a subtree's path precedes every key
+	 * in it, so completions come out by weight, then alphabetically.
+	 */
+	private record Candidate(long weight, String path, Node node, String text) implements Comparable<Candidate> {
+
+		private static final Comparator<Candidate> ORDER = Comparator.<Candidate>comparingLong(x -> -x.weight)
+				.thenComparing(Candidate::path);
+
+		@Override
+		public int compareTo(Candidate other) {
+			return ORDER.compare(this, other);
+		}
+	}
+
+}
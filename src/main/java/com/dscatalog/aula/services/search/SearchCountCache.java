@@ -0,0 +1,56 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps recent exact search totals for a short time, keyed by the catalog
+ * version and the normalized filters, so paging through the same search counts
+ * once and a committed write is never answered with an older total. Least
+ * recently used entries are evicted past max-entries.
+ */
+@Component
+public class SearchCountCache {
+
+	@Value("${catalog.search.count-cache.ttl-seconds:60}")
+	private long ttlSeconds;
+
+	@Value("${catalog.search.count-cache.max-entries:10000}")
+	private int maxEntries;
+
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	public long get(long version, String query, LongSupplier counter) {
+		Key key = new Key(version, query);
+		long now = System.currentTimeMillis();
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null && entry.expiresAt() > now) {
+				return entry.count();
+			}
+		}
+
+		long count = counter.getAsLong();
+		synchronized (entries) {
+			entries.put(key, new Entry(count, now + ttlSeconds * 1000L));
+			Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+			while (entries.size() > maxEntries && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+		}
+		return count;
+	}
+
+	private record Key(long version, String query) {
+	}
+
+	private record Entry(long count, long expiresAt) {
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.dscatalog.aula.services.search;
+
+/**
+ * Strategy used by ProductService.searchAll to read a page of products.
+ */
+public enum SearchEngine {
+
+	/** Paged id query, separate count query, then a JOIN FETCH of the page. */
+	CLASSIC,
+
+	/** One statement returning the page rows, their categories and COUNT(*) OVER(). */
+	WINDOW
+
+}
@@ -0,0 +1,95 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.dscatalog.aula.dto.CacheStatsDTO;
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+
+/**
+ * LRU cache of product search results bounded by an estimate of their heap size.
+ * Keys carry the catalog version, so entries computed before a write are never
+ * served again and simply age out. Every caller gets its own copy of the DTOs,
+ * so nothing it changes leaks into the cached entry.
+ */
+@Component
+public class SearchResultCache {
+
+	@Value("${catalog.search.result-cache.max-bytes:33554432}")
+	private long maxBytes;
+
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public Slice<ProductDTO> get(Key key, Supplier<Slice<ProductDTO>> loader) {
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				hits.incrementAndGet();
+				return entry.value().map(ProductDTO::new);
+			}
+		}
+		misses.incrementAndGet();
+		Slice<ProductDTO> value = loader.get();
+		put(key, value);
+		return value.map(ProductDTO::new);
+	}
+
+	public CacheStatsDTO stats() {
+		synchronized (entries) {
+			return new CacheStatsDTO(hits.get(), misses.get(), evictions.get(), (long) entries.size(), bytes);
+		}
+	}
+
+	private void put(Key key, Slice<ProductDTO> value) {
+		long size = estimateBytes(value);
+		if (size > maxBytes) {
+			return;
+		}
+		synchronized (entries) {
+			Entry previous = entries.put(key, new Entry(value, size));
+			bytes += size - (previous == null ? 0 : previous.bytes());
+			Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+			while (bytes > maxBytes && it.hasNext()) {
+				bytes -= it.next().getValue().bytes();
+				it.remove();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	static long estimateBytes(Slice<ProductDTO> value) {
+		long size = 128;
+		for (ProductDTO dto : value.getContent()) {
+			size += 96 + 2L * (length(dto.getName()) + length(dto.getDescription()) + length(dto.getImgUrl()));
+			for (CategoryDTO category : dto.getCategories()) {
+				size += 48 + 2L * length(category.getName());
+			}
+		}
+		return size;
+	}
+
+	private static int length(String value) {
+		return value == null ? 0 : value.length();
+	}
+
+	public record Key(long version, String query, CountMode countMode, Pageable pageable) {
+	}
+
+	private record Entry(Slice<ProductDTO> value, long bytes) {
+	}
+
+}
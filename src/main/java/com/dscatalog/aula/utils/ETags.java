@@ -0,0 +1,51 @@
+package com.dscatalog.aula.utils;
+
+import java.util.List;
+
+import com.dscatalog.aula.projections.VersionProjection;
+import com.dscatalog.aula.services.exceptions.PreconditionFailedException;
+
+/**
+ * Strong entity tags built from @Version columns.
+ */
+public final class ETags {
+
+	private ETags() {
+	}
+
+	public static String of(Long version) {
+		return version == null ? null : "\"" + version + "\"";
+	}
+
+	/**
+	 * Tag of a whole collection: changes whenever a row is added, removed or updated.
+	 */
+	public static String of(List<? extends VersionProjection> versions) {
+		long hash = 1;
+		for (VersionProjection x : versions) {
+			hash = 31 * hash + x.getId();
+			hash = 31 * hash + x.getVersion();
+		}
+		return "\"" + Long.toHexString(hash) + "-" + versions.size() + "\"";
+	}
+
+	/**
+	 * Version expected by an If-Match header; null when absent or "*". Weak or
+	 * malformed tags can never match a strong comparison, so they fail the precondition.
+	 */
+	public static Long expectedVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			try {
+				return Long.parseLong(tag.substring(1, tag.length() - 1));
+			} catch (NumberFormatException e) {
+				// falls through
+			}
+		}
+		throw new PreconditionFailedException("If-Match does not match the current version - " + ifMatch);
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.dscatalog.aula.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dscatalog.aula.projections.IdProjection;
+
+/**
+ * Puts rows loaded by id back in the order of the page that selected the ids.
+ * Long ids go through a primitive open-addressing table, so nothing is boxed
+ * and the only allocations are two arrays sized to the rows and the result.
+ * Ids without a row are skipped instead of producing nulls; when rows repeat
+ * an id, the first one wins.
+ */
+public final class IdJoin {
+
+	private IdJoin() {
+	}
+
+	public static <T extends IdProjection<Long>> List<T> join(List<? extends IdProjection<Long>> ordered, List<T> rows) {
+		long[] ids = new long[ordered.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = ordered.get(i).getId();
+		}
+		return join(ids, rows);
+	}
+
+	public static <T extends IdProjection<Long>> List<T> joinIds(List<Long> ordered, List<T> rows) {
+		long[] ids = new long[ordered.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = ordered.get(i);
+		}
+		return join(ids, rows);
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T extends IdProjection<Long>> List<T> join(long[] ids, List<T> rows) {
+		int n = rows.size();
+		int capacity = Integer.highestOneBit(Math.max(1, n) * 2) << 1;
+		int mask = capacity - 1;
+		long[] keys = new long[capacity];
+		int[] slots = new int[capacity];
+		for (int i = 0; i < n; i++) {
+			long key = rows.get(i).getId();
+			int slot = hash(key) & mask;
+			while (slots[slot] != 0 && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			if (slots[slot] == 0) {
+				keys[slot] = key;
+				slots[slot] = i + 1;
+			}
+		}
+
+		T[] result = (T[]) new IdProjection[ids.length];
+		int size = 0;
+		for (long key : ids) {
+			int slot = hash(key) & mask;
+			while (slots[slot] != 0) {
+				if (keys[slot] == key) {
+					result[size++] = rows.get(slots[slot] - 1);
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		return Arrays.asList(size == result.length ? result : Arrays.copyOf(result, size));
+	}
+
+	/**
+	 * Same join for any other id type, through a HashMap.
+	 */
+	public static <ID, T extends IdProjection<ID>> List<T> joinGeneric(List<? extends IdProjection<ID>> ordered,
+			List<T> rows) {
+		Map<ID, T> map = new HashMap<>();
+		for (T row : rows) {
+			map.putIfAbsent(row.getId(), row);
+		}
+		List<T> result = new ArrayList<>(ordered.size());
+		for (IdProjection<ID> x : ordered) {
+			T row = map.get(x.getId());
+			if (row != null) {
+				result.add(row);
+			}
+		}
+		return result;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+}
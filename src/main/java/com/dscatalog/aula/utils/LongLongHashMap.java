@@ -0,0 +1,126 @@
+package com.dscatalog.aula.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from long keys to non-negative long values, with no boxing
+ * and two arrays as its whole footprint. Removal shifts the following entries
+ * back instead of leaving tombstones, and copies are two array clones, so a
+ * writer can derive a changed map from a shared one without rehashing it.
+ */
+public final class LongLongHashMap {
+
+	private long[] keys;
+	private long[] values;
+	private int mask;
+	private int size;
+
+	public LongLongHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(1, expectedSize) * 2) << 1;
+		this.keys = new long[capacity];
+		this.values = new long[capacity];
+		this.mask = capacity - 1;
+		Arrays.fill(values, -1);
+	}
+
+	public LongLongHashMap(LongLongHashMap other) {
+		this.keys = other.keys.clone();
+		this.values = other.values.clone();
+		this.mask = other.mask;
+		this.size = other.size;
+	}
+
+	/**
+	 * Maps key to value, replacing any previous value. The arrays double once
+	 * they are half full.
+	 */
+	public void put(long key, long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Negative value - " + value);
+		}
+		int slot = slot(key);
+		if (values[slot] < 0) {
+			if (size + 1 > values.length / 2) {
+				grow();
+				slot = slot(key);
+			}
+			size++;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+	}
+
+	/**
+	 * Returns the value of key, or -1 when it is absent.
+	 */
+	public long get(long key) {
+		return values[slot(key)];
+	}
+
+	public void remove(long key) {
+		int slot = slot(key);
+		if (values[slot] < 0) {
+			return;
+		}
+		size--;
+		int next = slot;
+		while (true) {
+			values[slot] = -1;
+			// moves back the first entry of the run that may no longer be reached
+			do {
+				next = (next + 1) & mask;
+				if (values[next] < 0) {
+					return;
+				}
+			} while (inRange(hash(keys[next]) & mask, slot, next));
+			keys[slot] = keys[next];
+			values[slot] = values[next];
+			slot = next;
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Slot holding key, or the free slot where it would go.
+	 */
+	private int slot(long key) {
+		int slot = hash(key) & mask;
+		while (values[slot] >= 0 && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Whether home lies cyclically in (free, at]: the entry at is then still
+	 * reachable with free emptied.
+	 */
+	private static boolean inRange(int home, int free, int at) {
+		return free <= at ? free < home && home <= at : free < home || home <= at;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		keys = new long[oldKeys.length * 2];
+		values = new long[oldValues.length * 2];
+		mask = keys.length - 1;
+		Arrays.fill(values, -1);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] >= 0) {
+				int slot = slot(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+}
@@ -0,0 +1,429 @@
+package com.dscatalog.aula.utils;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative long ids, split Roaring-style into containers
+ * of 2^16 consecutive ids keyed by the high bits. A container holds its low 16
+ * bits as a sorted char array while it has at most 4096 of them, and as a 8KB
+ * bitmap past that, so sparse and dense ranges both stay small and set
+ * operations work a container at a time. Not thread safe.
+ */
+public final class RoaringBitmap {
+
+	static final int ARRAY_MAX = 4096;
+
+	private long[] keys = new long[0];
+	private Container[] containers = new Container[0];
+	private int size;
+
+	public RoaringBitmap() {
+	}
+
+	private RoaringBitmap(long[] keys, Container[] containers, int size) {
+		this.keys = keys;
+		this.containers = containers;
+		this.size = size;
+	}
+
+	public static RoaringBitmap of(long... ids) {
+		RoaringBitmap result = new RoaringBitmap();
+		for (long id : ids) {
+			result.add(id);
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the id, returning whether it was absent.
+	 */
+	public boolean add(long id) {
+		if (id < 0) {
+			throw new IllegalArgumentException("Negative id - " + id);
+		}
+		long key = id >>> 16;
+		int i = Arrays.binarySearch(keys, 0, size, key);
+		if (i < 0) {
+			i = -i - 1;
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, Math.max(4, size * 2));
+				containers = Arrays.copyOf(containers, keys.length);
+			}
+			System.arraycopy(keys, i, keys, i + 1, size - i);
+			System.arraycopy(containers, i, containers, i + 1, size - i);
+			keys[i] = key;
+			containers[i] = new ArrayContainer();
+			size++;
+		}
+		Container container = containers[i];
+		int before = container.cardinality();
+		containers[i] = container.add((char) id);
+		return containers[i].cardinality() > before;
+	}
+
+	/**
+	 * Removes the id, returning whether it was present.
+	 */
+	public boolean remove(long id) {
+		int i = id < 0 ? -1 : Arrays.binarySearch(keys, 0, size, id >>> 16);
+		if (i < 0) {
+			return false;
+		}
+		Container container = containers[i];
+		int before = container.cardinality();
+		containers[i] = container.remove((char) id);
+		if (containers[i].cardinality() == 0) {
+			System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+			System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+			containers[--size] = null;
+			return true;
+		}
+		return containers[i].cardinality() < before;
+	}
+
+	public boolean contains(long id) {
+		int i = id < 0 ? -1 : Arrays.binarySearch(keys, 0, size, id >>> 16);
+		return i >= 0 && containers[i].contains((char) id);
+	}
+
+	public long cardinality() {
+		long result = 0;
+		for (int i = 0; i < size; i++) {
+			result += containers[i].cardinality();
+		}
+		return result;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public RoaringBitmap copy() {
+		Container[] copies = new Container[size];
+		for (int i = 0; i < size; i++) {
+			copies[i] = containers[i].copy();
+		}
+		return new RoaringBitmap(Arrays.copyOf(keys, size), copies, size);
+	}
+
+	/**
+	 * Ids in ascending order.
+	 */
+	public long[] toArray() {
+		long[] result = new long[(int) cardinality()];
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			n = containers[i].copyTo(keys[i] << 16, result, n);
+		}
+		return result;
+	}
+
+	public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+		RoaringBitmap result = new RoaringBitmap(new long[Math.min(a.size, b.size)],
+				new Container[Math.min(a.size, b.size)], 0);
+		int i = 0, j = 0;
+		while (i < a.size && j < b.size) {
+			if (a.keys[i] < b.keys[j]) {
+				i++;
+			} else if (a.keys[i] > b.keys[j]) {
+				j++;
+			} else {
+				result.append(a.keys[i], a.containers[i++].and(b.containers[j++]));
+			}
+		}
+		return result;
+	}
+
+	public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+		RoaringBitmap result = new RoaringBitmap(new long[a.size + b.size], new Container[a.size + b.size], 0);
+		int i = 0, j = 0;
+		while (i < a.size || j < b.size) {
+			if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+				result.append(a.keys[i], a.containers[i++].copy());
+			} else if (i == a.size || a.keys[i] > b.keys[j]) {
+				result.append(b.keys[j], b.containers[j++].copy());
+			} else {
+				result.append(a.keys[i], a.containers[i++].or(b.containers[j++]));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Ids of a that are not in b.
+	 */
+	public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+		RoaringBitmap result = new RoaringBitmap(new long[a.size], new Container[a.size], 0);
+		int j = 0;
+		for (int i = 0; i < a.size; i++) {
+			while (j < b.size && b.keys[j] < a.keys[i]) {
+				j++;
+			}
+			result.append(a.keys[i], j < b.size && b.keys[j] == a.keys[i]
+					? a.containers[i].andNot(b.containers[j])
+					: a.containers[i].copy());
+		}
+		return result;
+	}
+
+	private void append(long key, Container container) {
+		if (container.cardinality() > 0) {
+			keys[size] = key;
+			containers[size++] = container;
+		}
+	}
+
+	private abstract static sealed class Container permits ArrayContainer, BitmapContainer {
+
+		abstract int cardinality();
+
+		abstract boolean contains(char value);
+
+		abstract Container add(char value);
+
+		abstract Container remove(char value);
+
+		abstract Container copy();
+
+		abstract int copyTo(long base, long[] target, int offset);
+
+		Container and(Container other) {
+			if (this instanceof BitmapContainer a && other instanceof BitmapContainer b) {
+				long[] words = new long[BitmapContainer.WORDS];
+				for (int k = 0; k < words.length; k++) {
+					words[k] = a.words[k] & b.words[k];
+				}
+				return BitmapContainer.optimize(words);
+			}
+			ArrayContainer array = this instanceof ArrayContainer x ? x : (ArrayContainer) other;
+			Container probe = array == this ? other : this;
+			char[] values = new char[array.cardinality];
+			int n = 0;
+			for (int k = 0; k < array.cardinality; k++) {
+				if (probe.contains(array.values[k])) {
+					values[n++] = array.values[k];
+				}
+			}
+			return new ArrayContainer(values, n);
+		}
+
+		Container or(Container other) {
+			if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+					&& a.cardinality + b.cardinality <= ARRAY_MAX) {
+				char[] values = new char[a.cardinality + b.cardinality];
+				int i = 0, j = 0, n = 0;
+				while (i < a.cardinality || j < b.cardinality) {
+					if (j == b.cardinality || (i < a.cardinality && a.values[i] < b.values[j])) {
+						values[n++] = a.values[i++];
+					} else if (i == a.cardinality || a.values[i] > b.values[j]) {
+						values[n++] = b.values[j++];
+					} else {
+						values[n++] = a.values[i++];
+						j++;
+					}
+				}
+				return new ArrayContainer(values, n);
+			}
+			long[] words = BitmapContainer.wordsOf(this);
+			if (other instanceof BitmapContainer b) {
+				for (int k = 0; k < words.length; k++) {
+					words[k] |= b.words[k];
+				}
+			} else {
+				ArrayContainer b = (ArrayContainer) other;
+				for (int k = 0; k < b.cardinality; k++) {
+					words[b.values[k] >>> 6] |= 1L << b.values[k];
+				}
+			}
+			return BitmapContainer.optimize(words);
+		}
+
+		Container andNot(Container other) {
+			if (this instanceof ArrayContainer a) {
+				char[] values = new char[a.cardinality];
+				int n = 0;
+				for (int k = 0; k < a.cardinality; k++) {
+					if (!other.contains(a.values[k])) {
+						values[n++] = a.values[k];
+					}
+				}
+				return new ArrayContainer(values, n);
+			}
+			long[] words = BitmapContainer.wordsOf(this);
+			if (other instanceof BitmapContainer b) {
+				for (int k = 0; k < words.length; k++) {
+					words[k] &= ~b.words[k];
+				}
+			} else {
+				ArrayContainer b = (ArrayContainer) other;
+				for (int k = 0; k < b.cardinality; k++) {
+					words[b.values[k] >>> 6] &= ~(1L << b.values[k]);
+				}
+			}
+			return BitmapContainer.optimize(words);
+		}
+	}
+
+	private static final class ArrayContainer extends Container {
+
+		private char[] values;
+		private int cardinality;
+
+		ArrayContainer() {
+			this(new char[4], 0);
+		}
+
+		ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		Container add(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				return this;
+			}
+			if (cardinality == ARRAY_MAX) {
+				return new BitmapContainer(BitmapContainer.wordsOf(this), cardinality).add(value);
+			}
+			i = -i - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+			}
+			System.arraycopy(values, i, values, i + 1, cardinality - i);
+			values[i] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+				cardinality--;
+			}
+			return this;
+		}
+
+		@Override
+		Container copy() {
+			return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+		}
+
+		@Override
+		int copyTo(long base, long[] target, int offset) {
+			for (int k = 0; k < cardinality; k++) {
+				target[offset++] = base | values[k];
+			}
+			return offset;
+		}
+	}
+
+	private static final class BitmapContainer extends Container {
+
+		static final int WORDS = 1 << 10;
+
+		private final long[] words;
+		private int cardinality;
+
+		BitmapContainer(long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		static long[] wordsOf(Container container) {
+			if (container instanceof BitmapContainer bitmap) {
+				return bitmap.words.clone();
+			}
+			ArrayContainer array = (ArrayContainer) container;
+			long[] words = new long[WORDS];
+			for (int k = 0; k < array.cardinality; k++) {
+				words[array.values[k] >>> 6] |= 1L << array.values[k];
+			}
+			return words;
+		}
+
+		/**
+		 * Wraps the words, going back to an array once they are sparse enough.
+		 */
+		static Container optimize(long[] words) {
+			int cardinality = 0;
+			for (long word : words) {
+				cardinality += Long.bitCount(word);
+			}
+			BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+			return cardinality > ARRAY_MAX ? bitmap : bitmap.toArray();
+		}
+
+		@Override
+		int cardinality() {
+			return cardinality;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		Container add(char value) {
+			if (!contains(value)) {
+				words[value >>> 6] |= 1L << value;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			if (contains(value)) {
+				words[value >>> 6] &= ~(1L << value);
+				cardinality--;
+			}
+			return cardinality > ARRAY_MAX ? this : toArray();
+		}
+
+		@Override
+		Container copy() {
+			return new BitmapContainer(words.clone(), cardinality);
+		}
+
+		@Override
+		int copyTo(long base, long[] target, int offset) {
+			for (int k = 0; k < WORDS; k++) {
+				long word = words[k];
+				while (word != 0) {
+					target[offset++] = base | ((long) k << 6) | Long.numberOfTrailingZeros(word);
+					word &= word - 1;
+				}
+			}
+			return offset;
+		}
+
+		private ArrayContainer toArray() {
+			char[] values = new char[cardinality];
+			int n = 0;
+			for (int k = 0; k < WORDS; k++) {
+				long word = words[k];
+				while (word != 0) {
+					values[n++] = (char) ((k << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, n);
+		}
+	}
+
+}
@@ -0,0 +1,7 @@
+-- Columns and indexes the entities expect on the dev database, which is not
+-- generated from them (ddl-auto=none). Safe to run on every start.
+ALTER TABLE tb_category ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON tb_product (name, id);
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON tb_product (price, id);
+CREATE INDEX IF NOT EXISTS idx_product_date_id ON tb_product (date, id);
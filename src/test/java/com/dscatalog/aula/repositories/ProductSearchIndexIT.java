@@ -0,0 +1,92 @@
+package com.dscatalog.aula.repositories;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks on H2 plans that the search filters are served by indexes. The SQL is
+ * captured from Hibernate while the repository runs the search, so the plan is
+ * the one of the statement actually sent.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.dscatalog.aula.repositories.ProductSearchIndexIT$LastStatement")
+@ActiveProfiles("test")
+@Transactional
+public class ProductSearchIndexIT {
+
+	@Autowired
+	private ProductRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void priceRangeShouldUsePriceIndex() {
+		ProductSearchRange range = new ProductSearchRange(1200.0, 1200.0, null, null);
+
+		String plan = explain(new ProductSearchCriteria("", List.of(), null, range), 1200.0);
+
+		Assertions.assertTrue(plan.contains("IDX_PRODUCT_PRICE_ID"), plan);
+	}
+
+	@Test
+	public void dateRangeShouldUseDateIndex() {
+		Instant fromDate = Instant.parse("2020-07-20T00:00:00Z");
+		ProductSearchRange range = new ProductSearchRange(null, null, fromDate, null);
+
+		String plan = explain(new ProductSearchCriteria("", List.of(), null, range), Timestamp.from(fromDate));
+
+		Assertions.assertTrue(plan.contains("IDX_PRODUCT_DATE_ID"), plan);
+	}
+
+	@Test
+	public void categoryFilterShouldSeekProductCategoryByCategoryId() {
+		String plan = explain(new ProductSearchCriteria("", List.of(1L), null, ProductSearchRange.NONE), 1L);
+
+		Assertions.assertTrue(plan.contains("CATEGORY_ID = "), plan);
+		Assertions.assertFalse(plan.contains("tableScan"), plan);
+	}
+
+	@Test
+	public void absentFiltersShouldNotBeRendered() {
+		repository.countProducts(new ProductSearchCriteria("", List.of(), null, ProductSearchRange.NONE));
+
+		Assertions.assertFalse(LastStatement.sql.contains("?"), LastStatement.sql);
+	}
+
+	/**
+	 * Counts the matches like every search engine does, then explains the captured
+	 * statement with the value bound to each of its parameters.
+	 */
+	private String explain(ProductSearchCriteria criteria, Object value) {
+		repository.countProducts(criteria);
+		String sql = LastStatement.sql;
+		Object[] args = new Object[(int) sql.chars().filter(x -> x == '?').count()];
+		Arrays.fill(args, value);
+		return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+	}
+
+	public static class LastStatement implements StatementInspector {
+
+		private static final long serialVersionUID = 1L;
+
+		static volatile String sql;
+
+		@Override
+		public String inspect(String sql) {
+			LastStatement.sql = sql;
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.dscatalog.aula.repositories;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+public class ProductSortTests {
+
+	@Test
+	public void normalizeShouldOrderByNameThenIdWhenUnsorted() {
+		Pageable result = ProductSort.normalize(PageRequest.of(2, 10));
+
+		Assertions.assertEquals(2, result.getPageNumber());
+		Assertions.assertEquals(Sort.by(Direction.ASC, "name", "id"), result.getSort());
+	}
+
+	@Test
+	public void normalizeShouldAddIdTiebreakerInKeyDirection() {
+		Pageable result = ProductSort.normalize(PageRequest.of(0, 10, Sort.by(Direction.DESC, "price")));
+
+		Assertions.assertEquals(Sort.by(Direction.DESC, "price", "id"), result.getSort());
+	}
+
+	@Test
+	public void normalizeShouldThrowIllegalArgumentExceptionWhenKeyIsNotWhitelisted() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			ProductSort.normalize(PageRequest.of(0, 10, Sort.by("description")));
+		});
+		Assertions.assertThrows(IllegalArgumentException.class, () -> {
+			ProductSort.normalize(PageRequest.of(0, 10, Sort.by("price", "name")));
+		});
+	}
+}
@@ -0,0 +1,58 @@
+package com.dscatalog.aula.resources;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class CategoryResourceIT {
+
+	private static final String CACHE_CONTROL = "max-age=60, public, stale-while-revalidate=600";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void findAllShouldReturnCacheControlAndNotModifiedWhenETagMatches() throws Exception {
+		MvcResult first = mockMvc.perform(get("/categories").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].name").value("Livros"))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL))
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn();
+		String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/categories").header(HttpHeaders.IF_NONE_MATCH, etag).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL));
+	}
+
+	@Test
+	public void findByIdShouldReturnNotModifiedWhenETagMatchesAndNotFoundWhenIdDoesNotExist() throws Exception {
+		String etag = mockMvc.perform(get("/categories/{id}", 1L).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Livros"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/categories/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, etag).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+		mockMvc.perform(get("/categories/{id}", 1000L).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isNotFound());
+	}
+
+}
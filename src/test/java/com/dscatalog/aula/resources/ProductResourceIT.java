@@ -1,17 +1,28 @@
 package com.dscatalog.aula.resources;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +42,8 @@ public class ProductResourceIT {
 	private ObjectMapper mapper;
 	@Autowired
 	private TokenUtil tokenUtil;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
 	
 	private Long existingId;
 	private Long nonExistingId;
@@ -57,7 +70,7 @@ public class ProductResourceIT {
 				.accept(MediaType.APPLICATION_JSON));
 		
 		result.andExpect(status().isOk());
-		result.andExpect(jsonPath("$.totalElements").value(12));
+		result.andExpect(jsonPath("$.totalElements").value(countTotalProducts));
 		result.andExpect(jsonPath("$.content").exists());
 		
 		result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
@@ -66,6 +79,399 @@ public class ProductResourceIT {
 		
 	}
 	
+	@Test
+	public void findAllShouldOrderByPriceThenIdWhenSortByPrice() throws Exception {
+		ResultActions asc = mockMvc.perform(get("/products?page=0&size=8&sort=price,asc")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions desc = mockMvc.perform(get("/products?page=0&size=5&sort=price,desc")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		asc.andExpect(status().isOk());
+		asc.andExpect(jsonPath("$.content[*].id").value(List.of(1, 5, 4, 3, 17, 6, 7, 13)));
+		desc.andExpect(status().isOk());
+		desc.andExpect(jsonPath("$.content[*].id").value(List.of(25, 24, 16, 23, 14)));
+	}
+	
+	@Test
+	public void findAllShouldOrderByDateThenIdWhenSortByDate() throws Exception {
+		ResultActions asc = mockMvc.perform(get("/products?page=0&size=3&sort=date,asc")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions desc = mockMvc.perform(get("/products?page=0&size=3&sort=date,desc")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		asc.andExpect(jsonPath("$.content[*].id").value(List.of(1, 2, 3)));
+		desc.andExpect(jsonPath("$.content[*].id").value(List.of(25, 24, 23)));
+	}
+	
+	@Test
+	public void findAllShouldSortNullPricesAsLargestWhenSortByPrice() throws Exception {
+		jdbcTemplate.update("UPDATE tb_product SET price = NULL WHERE id = 4");
+		
+		ResultActions asc = mockMvc.perform(get("/products?name=gamer&page=0&size=2&sort=price,asc")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions desc = mockMvc.perform(get("/products?name=gamer&page=0&size=3&sort=price,desc")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		asc.andExpect(jsonPath("$.content[*].id").value(List.of(17, 6)));
+		desc.andExpect(jsonPath("$.content[*].id").value(List.of(4, 25, 24)));
+	}
+	
+	@Test
+	public void findAllShouldReturnSliceWithoutTotalWhenCountIsNone() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?page=0&size=12&count=none")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content.length()").value(12));
+		result.andExpect(jsonPath("$.last").value(false));
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	public void findAllShouldFilterByPriceAndDateRange() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?maxPrice=1000&fromDate=2020-07-13T00:00:00Z&toDate=2020-07-15T00:00:00Z")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").value(2L));
+		result.andExpect(jsonPath("$.content[0].name").value("Rails for Dummies"));
+		result.andExpect(jsonPath("$.content[1].name").value("The Lord of the Rings"));
+	}
+	
+	@Test
+	public void findAllShouldCombineCategoriesWithAllModeAndExclusions() throws Exception {
+		ResultActions all = mockMvc.perform(get("/products?categoryId=1,3&categoryMode=all")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions excluded = mockMvc.perform(get("/products?categoryId=3&excludeCategoryId=1")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		all.andExpect(status().isOk());
+		all.andExpect(jsonPath("$.totalElements").value(1L));
+		all.andExpect(jsonPath("$.content[0].name").value("Smart TV"));
+		excluded.andExpect(status().isOk());
+		excluded.andExpect(jsonPath("$.totalElements").value(22L));
+	}
+	
+	@Test
+	public void findAllShouldReturnBadRequestWhenCategoryModeIsInvalid() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?categoryId=1,3&categoryMode=none")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void findAllShouldReturnBadRequestWhenPriceRangeIsInverted() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?minPrice=500&maxPrice=100")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void findAllShouldReturnBadRequestWhenSortIsNotSupported() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?sort=description,asc")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void searchFuzzyShouldTolerateTyposAndRankByDistance() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?fuzzy=true&name=lord of the rigns")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").value(1L));
+		result.andExpect(jsonPath("$.content[0].name").value("The Lord of the Rings"));
+	}
+	
+	@Test
+	public void searchFuzzyShouldFilterRankedMatchesByCategoryAndRange() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?fuzzy=true&name=PC  gamr&categoryId=3&maxPrice=1300")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.totalElements").value(2L));
+		result.andExpect(jsonPath("$.content[*].id").value(List.of(4, 17)));
+	}
+	
+	@Test
+	public void searchFuzzyShouldApplyCategoryModeAndExclusion() throws Exception {
+		ResultActions all = mockMvc.perform(get("/products?fuzzy=true&name=smrt&categoryId=1,3&categoryMode=all")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions excluded = mockMvc.perform(get("/products?fuzzy=true&name=smrt&excludeCategoryId=1")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		all.andExpect(status().isOk());
+		all.andExpect(jsonPath("$.content[*].id").value(List.of(2)));
+		excluded.andExpect(status().isOk());
+		excluded.andExpect(jsonPath("$.totalElements").value(0L));
+	}
+	
+	@Test
+	public void searchFuzzyShouldHonourCountMode() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?fuzzy=true&name=PC  gamr&categoryId=3&maxPrice=1300&size=1&count=none")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content[*].id").value(List.of(4)));
+		result.andExpect(jsonPath("$.last").value(false));
+		result.andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test
+	public void searchShouldReturnBadRequestWhenModesAreCombined() throws Exception {
+		ResultActions facetsAfter = mockMvc.perform(get("/products?facets=category&after=")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions fuzzyFacets = mockMvc.perform(get("/products?fuzzy=true&name=smrt&facets=category")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions fuzzyAfter = mockMvc.perform(get("/products?fuzzy=true&name=smrt&after=")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions notFuzzyAfter = mockMvc.perform(get("/products?fuzzy=false&after=&size=1")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		facetsAfter.andExpect(status().isBadRequest());
+		fuzzyFacets.andExpect(status().isBadRequest());
+		fuzzyAfter.andExpect(status().isBadRequest());
+		notFuzzyAfter.andExpect(status().isOk());
+		notFuzzyAfter.andExpect(jsonPath("$.next").isNotEmpty());
+	}
+	
+	@Test
+	public void suggestShouldReturnCompletionsOfPrefix() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products/suggest?prefix=pc  gamer T&limit=3")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.length()").value(3));
+		result.andExpect(jsonPath("$[0]").value("PC Gamer Tera"));
+		result.andExpect(jsonPath("$[1]").value("PC Gamer Tr"));
+		result.andExpect(jsonPath("$[2]").value("PC Gamer Turbo"));
+	}
+	
+	@Test
+	public void searchWithFacetsShouldReturnCategoryAndPriceCounts() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?name=gamer&categoryId=3&facets=category,price")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.page.content").exists());
+		result.andExpect(jsonPath("$.categoryFacets[0].name").value("Computadores"));
+		result.andExpect(jsonPath("$.categoryFacets[0].count").value(21));
+		result.andExpect(jsonPath("$.priceFacets").isArray());
+		result.andExpect(jsonPath("$.priceFacets[2].count").value(0));
+		result.andExpect(jsonPath("$.priceFacets[3].min").value(1000.0));
+		result.andExpect(jsonPath("$.priceFacets[3].count").value(15));
+		result.andExpect(jsonPath("$.priceFacets[4].count").value(6));
+	}
+	
+	@Test
+	public void searchWithFacetsShouldCountCategoriesUnderAllModeAndExclusions() throws Exception {
+		ResultActions all = mockMvc.perform(get("/products?categoryId=1,3&categoryMode=all&facets=category")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions excluded = mockMvc.perform(get("/products?name=a&excludeCategoryId=1&facets=category")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		all.andExpect(status().isOk());
+		all.andExpect(jsonPath("$.categoryFacets[*].name").value(List.of("Computadores", "Livros")));
+		all.andExpect(jsonPath("$.categoryFacets[*].count").value(List.of(1, 1)));
+		excluded.andExpect(status().isOk());
+		excluded.andExpect(jsonPath("$.categoryFacets[*].name").value(List.of("Computadores", "Eletrônicos")));
+		excluded.andExpect(jsonPath("$.categoryFacets[*].count").value(List.of(22, 1)));
+	}
+	
+	@Test
+	public void searchAfterShouldWalkCatalogByCursor() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?after=&size=12")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content.length()").value(12));
+		result.andExpect(jsonPath("$.content[0].name").value("Macbook Pro"));
+		result.andExpect(jsonPath("$.content[1].name").value("PC Gamer"));
+		result.andExpect(jsonPath("$.next").isNotEmpty());
+		
+		String body = result.andReturn().getResponse().getContentAsString();
+		String next = mapper.readTree(body).get("next").asText();
+		
+		result = mockMvc.perform(get("/products?size=12&after=" + next)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content.length()").value(12));
+		
+		next = mapper.readTree(result.andReturn().getResponse().getContentAsString()).get("next").asText();
+		
+		result = mockMvc.perform(get("/products?size=12&after=" + next)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.content.length()").value(countTotalProducts - 24));
+		result.andExpect(jsonPath("$.next").doesNotExist());
+	}
+	
+	@Test
+	public void searchAfterShouldApplyCategoryModeAndExclusion() throws Exception {
+		ResultActions excluded = mockMvc.perform(get("/products?after=&size=30&excludeCategoryId=3")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions invalid = mockMvc.perform(get("/products?after=&categoryMode=some")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		excluded.andExpect(status().isOk());
+		excluded.andExpect(jsonPath("$.content[*].id").value(List.of(5, 1)));
+		excluded.andExpect(jsonPath("$.next").doesNotExist());
+		invalid.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void searchAfterShouldApplyPriceAndDateRange() throws Exception {
+		ResultActions cheap = mockMvc.perform(get("/products?after=&size=30&maxPrice=200")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions dated = mockMvc.perform(get("/products?after=&size=30&toDate=2020-07-14T00:00:00Z")
+				.accept(MediaType.APPLICATION_JSON));
+		ResultActions invalid = mockMvc.perform(get("/products?after=&minPrice=10&maxPrice=5")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		cheap.andExpect(status().isOk());
+		cheap.andExpect(jsonPath("$.content[*].id").value(List.of(5, 1)));
+		cheap.andExpect(jsonPath("$.next").doesNotExist());
+		dated.andExpect(status().isOk());
+		dated.andExpect(jsonPath("$.content[*].id").value(List.of(1)));
+		invalid.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void searchAfterShouldReturnBadRequestWhenCursorIsInvalid() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?after=not-a-cursor")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void exportShouldStreamEveryProductAsCsv() throws Exception {
+		MvcResult started = mockMvc.perform(get("/products/export?format=csv"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		ResultActions result = mockMvc.perform(asyncDispatch(started));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(content().contentTypeCompatibleWith("text/csv"));
+		String[] lines = result.andReturn().getResponse().getContentAsString().split("\r\n");
+		Assertions.assertEquals("id,name,description,price,imgUrl,date,categories", lines[0]);
+		Assertions.assertEquals(countTotalProducts + 1, lines.length);
+	}
+	
+	@Test
+	public void exportShouldReturnBadRequestWhenFormatIsInvalid() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products/export?format=xml"));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
+	@Test
+	public void insertAllShouldInsertValidRowsAndReportInvalidOnes() throws Exception {
+		String body = "{\"name\":\"Bulk Product\",\"price\":10.0,\"categories\":[{\"id\":1}]}\n"
+				+ "{\"name\":\"x\",\"price\":10.0}\n"
+				+ "{\"name\":\"Bulk Product 2\",\"price\":10.0,\"categories\":[{\"id\":1000}]}\n";
+		
+		ResultActions result = mockMvc.perform(post("/products/bulk")
+				.header("Authorization", "Bearer " + bearerToken)
+				.content(body)
+				.contentType("application/x-ndjson")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.received").value(3));
+		result.andExpect(jsonPath("$.inserted").value(1));
+		result.andExpect(jsonPath("$.errors[0].row").value(1));
+		result.andExpect(jsonPath("$.errors[1].row").value(2));
+	}
+	
+	@Test
+	public void updateAllShouldPatchExistingProductsAndListMissingIds() throws Exception {
+		String body = "[{\"id\":" + existingId + ",\"price\":99.9},{\"id\":" + nonExistingId + ",\"price\":1.0}]";
+		
+		ResultActions result = mockMvc.perform(patch("/products/bulk")
+				.header("Authorization", "Bearer " + bearerToken)
+				.content(body)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.updated").value(1));
+		result.andExpect(jsonPath("$.notFound[0]").value(nonExistingId));
+		
+		mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.price").value(99.9))
+				.andExpect(jsonPath("$.name").value("The Lord of the Rings"));
+	}
+	
+	@Test
+	public void updateAllShouldRejectEmptyPatchesAndEmptyCategoriesAndReplaceSentOnes() throws Exception {
+		String body = "[{\"id\":1},{\"id\":2,\"categories\":[]},{\"id\":3,\"categories\":[{\"id\":1}]}]";
+		
+		ResultActions result = mockMvc.perform(patch("/products/bulk")
+				.header("Authorization", "Bearer " + bearerToken)
+				.content(body)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isOk());
+		result.andExpect(jsonPath("$.updated").value(1));
+		result.andExpect(jsonPath("$.errors[0].row").value(0));
+		result.andExpect(jsonPath("$.errors[1].row").value(1));
+		
+		mockMvc.perform(get("/products/{id}", 2L).accept(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.categories.length()").value(2));
+		mockMvc.perform(get("/products/{id}", 3L).accept(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.categories.length()").value(1))
+				.andExpect(jsonPath("$.categories[0].id").value(1));
+	}
+	
+	@Test
+	public void findByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+		String etag = mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(header().exists("ETag"))
+				.andReturn().getResponse().getHeader("ETag");
+		
+		ResultActions result = mockMvc.perform(get("/products/{id}", existingId)
+				.header("If-None-Match", etag)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isNotModified());
+		result.andExpect(header().string("ETag", etag));
+	}
+	
+	@Test
+	public void findByIdShouldReturnNotModifiedWhenWeakETagIsListed() throws Exception {
+		String etag = mockMvc.perform(get("/products/{id}", existingId).accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader("ETag");
+		
+		ResultActions result = mockMvc.perform(get("/products/{id}", existingId)
+				.header("If-None-Match", "\"stale\", W/" + etag)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isNotModified());
+	}
+	
+	@Test
+	public void updateShouldReturnPreconditionFailedWhenIfMatchIsStale() throws Exception {
+		ProductDTO productDTO = ProductFactory.createProductDTO();
+		String jsonBody = mapper.writeValueAsString(productDTO);
+		
+		ResultActions result = mockMvc.perform(put("/products/{id}", existingId)
+				.header("Authorization", "Bearer " + bearerToken)
+				.header("If-Match", "\"999\"")
+				.content(jsonBody)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isPreconditionFailed());
+	}
+	
 	@Test
 	public void updateShouldReturnProductDTOWhenIdExists() throws Exception {
 		ProductDTO productDTO = ProductFactory.createProductDTO();
@@ -27,6 +27,7 @@ import org.springframework.test.web.servlet.ResultActions;
 
 import com.dscatalog.aula.dto.ProductDTO;
 import com.dscatalog.aula.entities.Product;
+import com.dscatalog.aula.services.ProductBulkService;
 import com.dscatalog.aula.services.ProductService;
 import com.dscatalog.aula.services.exceptions.DatabaseException;
 import com.dscatalog.aula.services.exceptions.ResourceNotFoundException;
@@ -42,6 +43,9 @@ public class ProductResourceTests {
 	@MockitoBean
 	private ProductService service;
 	
+	@MockitoBean
+	private ProductBulkService bulkService;
+	
 	@Autowired
 	private ObjectMapper mapper;
 	
@@ -71,8 +75,8 @@ public class ProductResourceTests {
 		when(service.findById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 		
 		// Update
-		when(service.update(eq(existingId), any())).thenReturn(productDTO);
-		when(service.update(eq(nonExistingId), any())).thenThrow(ResourceNotFoundException.class);
+		when(service.update(eq(existingId), any(), any())).thenReturn(productDTO);
+		when(service.update(eq(nonExistingId), any(), any())).thenThrow(ResourceNotFoundException.class);
 		
 		// Delete
 		doNothing().when(service).delete(existingId);
@@ -145,6 +149,14 @@ public class ProductResourceTests {
 		result.andExpect(status().isOk());
 	}
 	
+	@Test
+	public void findAllShouldReturnBadRequestWhenCountModeIsInvalid() throws Exception {
+		ResultActions result = mockMvc.perform(get("/products?count=maybe")
+				.accept(MediaType.APPLICATION_JSON));
+		
+		result.andExpect(status().isBadRequest());
+	}
+	
 	@Test
 	public void findByIdShouldReturnProductWhenIdExists() throws Exception {
 		ResultActions result = mockMvc.perform(get("/products/{id}", existingId)
@@ -0,0 +1,104 @@
+package com.dscatalog.aula.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.repositories.ProductSearchCriteria;
+import com.dscatalog.aula.repositories.ProductSort;
+import com.dscatalog.aula.services.exceptions.ResourceNotFoundException;
+import com.dscatalog.aula.services.search.CatalogSnapshotStore;
+import com.dscatalog.aula.tests.factories.ProductFactory;
+
+/**
+ * Not transactional: the snapshot only follows committed writes, so each test
+ * commits its own product and deletes it again.
+ */
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+public class CatalogSnapshotIT {
+
+	private static final long TIMEOUT_MILLIS = 5000L;
+
+	@Autowired
+	private ProductService service;
+
+	@Autowired
+	private CatalogSnapshotStore snapshotStore;
+
+	@Autowired
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		await(() -> snapshotStore.current() != null);
+	}
+
+	@Test
+	public void findByIdShouldSeeUpdatesAndDeletesOnceCommitted() throws Exception {
+		ProductDTO dto = ProductFactory.createProductDTO();
+		Long id = service.insert(dto).getId();
+		await(() -> snapshotStore.current().findById(id) != null);
+
+		dto.setName("Phone Pro");
+		service.update(id, dto);
+		await(() -> "Phone Pro".equals(snapshotStore.current().findById(id).getName()));
+		Assertions.assertEquals("Phone Pro", service.findById(id).getName());
+
+		service.delete(id);
+		await(() -> snapshotStore.current().findById(id) == null);
+		Assertions.assertThrows(ResourceNotFoundException.class, () -> service.findById(id));
+	}
+
+	@Test
+	public void findByIdShouldReturnCopiesCallersCanChange() {
+		service.findById(1L).setName("Changed");
+
+		Assertions.assertEquals("The Lord of the Rings", service.findById(1L).getName());
+	}
+
+	/**
+	 * The snapshot orders names by code unit; the test database does too, so
+	 * both paths must agree on mixed case and accented names.
+	 */
+	@Test
+	public void searchShouldOrderNamesLikeTheDatabaseOnTheSameFixture() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		try {
+			for (String name : List.of("iPhone", "Écran 4K", "macbook Air", "MacBook Air", "Zeta", "eBook")) {
+				ProductDTO dto = ProductFactory.createProductDTO();
+				dto.setName(name);
+				ids.add(service.insert(dto).getId());
+			}
+			await(() -> ids.stream().allMatch(id -> snapshotStore.current().findById(id) != null));
+
+			Pageable pageable = ProductSort.normalize(PageRequest.of(0, 50));
+			ProductSearchCriteria criteria = new ProductSearchCriteria("", List.of(), List.of(), null);
+			List<Long> fromSnapshot = snapshotStore.current().search(criteria, pageable).map(ProductDTO::getId).getContent();
+			Slice<ProductDTO> fromDatabase = repository.searchProductsSlice(criteria, pageable);
+
+			Assertions.assertEquals(fromDatabase.map(ProductDTO::getId).getContent(), fromSnapshot);
+		} finally {
+			ids.forEach(service::delete);
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!condition.getAsBoolean()) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "snapshot not updated in time");
+			Thread.sleep(20);
+		}
+	}
+
+}
@@ -3,6 +3,9 @@ package com.dscatalog.aula.services;
 import com.dscatalog.aula.dto.CategoryDTO;
 import com.dscatalog.aula.entities.Category;
 import com.dscatalog.aula.repositories.CategoryRepository;
+import com.dscatalog.aula.services.cache.CategoryListingCache;
+import com.dscatalog.aula.services.cache.SingleFlight;
+import com.dscatalog.aula.services.search.CatalogVersion;
 import com.dscatalog.aula.tests.factories.CategoryFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,11 +13,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -24,6 +31,12 @@ public class CategoryServiceTests {
     private CategoryService service;
     @Mock
     private CategoryRepository repository;
+    @Mock
+    private CatalogVersion catalogVersion;
+    @Spy
+    private SingleFlight singleFlight;
+    @Spy
+    private CategoryListingCache listingCache;
 
     private Category category;
     private List<Category> listCategory;
@@ -35,7 +48,7 @@ public class CategoryServiceTests {
         listCategory = new ArrayList<>();
         listCategory.add(category);
 
-        when(repository.findAll()).thenReturn(listCategory);
+        when(repository.searchAllCategoryDTOs()).thenReturn(listCategory.stream().map(x -> new CategoryDTO(x)).toList());
 
     }
 
@@ -49,6 +62,17 @@ public class CategoryServiceTests {
 
     }
 
+    @Test
+    public void findAllShouldReturnCopiesCallersCanChange(){
+        ReflectionTestUtils.setField(listingCache, "maxAgeSeconds", 60L);
+
+        service.findAll().get(0).setName("Changed");
+        List<CategoryDTO> result = service.findAll();
+
+        Assertions.assertEquals(category.getName(), result.get(0).getName());
+        verify(repository, times(1)).searchAllCategoryDTOs();
+    }
+
 
 
 
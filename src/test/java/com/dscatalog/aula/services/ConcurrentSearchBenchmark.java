@@ -0,0 +1,93 @@
+package com.dscatalog.aula.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.dscatalog.aula.AulaApplication;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.repositories.ProductSearchRange;
+import com.dscatalog.aula.services.search.CountMode;
+
+/**
+ * Latency of an exact-count search with the page and count queries run one
+ * after the other or concurrently, on the H2 test profile with a synthetic
+ * catalog. The result cache is off so every call reaches the database.
+ * Run with main().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentSearchBenchmark {
+
+	@Param({ "false", "true" })
+	private boolean concurrent;
+
+	@Param({ "300000" })
+	private int products;
+
+	private ConfigurableApplicationContext context;
+	private ProductService service;
+	private ProductSearchRange range;
+	private int page;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(AulaApplication.class)
+				.web(WebApplicationType.NONE)
+				.profiles("test")
+				.properties("catalog.search.concurrent.enabled=" + concurrent,
+						"catalog.search.result-cache.max-bytes=0",
+						"spring.jpa.show-sql=false")
+				.run();
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("""
+				INSERT INTO tb_product (name, price, date, description, img_url, version)
+				SELECT CONCAT('Item ', X), MOD(X, 5000), CURRENT_TIMESTAMP, 'd', 'u', 0 FROM SYSTEM_RANGE(1, ?)
+				""", products);
+		jdbcTemplate.update("""
+				INSERT INTO tb_product_category (product_id, category_id)
+				SELECT id, MOD(id, 3) + 1 FROM tb_product WHERE id NOT IN (SELECT product_id FROM tb_product_category)
+				""");
+		service = context.getBean(ProductService.class);
+		range = new ProductSearchRange(100.0, 4000.0, null, null);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Slice<ProductDTO> searchExact() {
+		page = (page + 1) % 50;
+		return service.searchAll("", "1,2", range, CountMode.EXACT, PageRequest.of(page, 12, Sort.by("price")));
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(ConcurrentSearchBenchmark.class.getSimpleName()).build()).run();
+	}
+}
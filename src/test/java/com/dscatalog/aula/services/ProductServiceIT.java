@@ -1,5 +1,7 @@
 package com.dscatalog.aula.services;
 
+import java.util.List;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +14,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.dscatalog.aula.dto.ProductDTO;
 import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.repositories.ProductSearchCriteria;
+import com.dscatalog.aula.repositories.ProductSearchRange;
 
 @SpringBootTest
 @Transactional
@@ -81,4 +85,15 @@ public class ProductServiceIT {
 		
 	}
 	
+	@Test
+	public void searchProductsPageShouldReadProductVersions() {
+		ProductSearchCriteria criteria = new ProductSearchCriteria("", List.of(), null, ProductSearchRange.NONE);
+
+		Page<ProductDTO> result = repository.searchProductsPage(criteria, PageRequest.of(0, 5, Sort.by("id")));
+
+		for (ProductDTO dto : result) {
+			Assertions.assertEquals(repository.findById(dto.getId()).orElseThrow().getVersion(), dto.getVersion());
+		}
+	}
+	
 }
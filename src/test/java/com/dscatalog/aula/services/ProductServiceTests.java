@@ -11,6 +11,8 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -21,10 +23,15 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import com.dscatalog.aula.dto.ProductDTO;
 import com.dscatalog.aula.entities.Category;
 import com.dscatalog.aula.entities.Product;
+import com.dscatalog.aula.projections.ProductRow;
 import com.dscatalog.aula.repositories.CategoryRepository;
 import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.cache.SingleFlight;
 import com.dscatalog.aula.services.exceptions.DatabaseException;
 import com.dscatalog.aula.services.exceptions.ResourceNotFoundException;
+import com.dscatalog.aula.services.search.CatalogSnapshotStore;
+import com.dscatalog.aula.services.search.CatalogVersion;
+import com.dscatalog.aula.services.search.ProductNameIndex;
 import com.dscatalog.aula.tests.factories.CategoryFactory;
 import com.dscatalog.aula.tests.factories.ProductFactory;
 
@@ -38,12 +45,23 @@ public class ProductServiceTests {
 	private ProductRepository repository;
 	@Mock
 	private CategoryRepository catRepository;
+	@Mock
+	private ProductNameIndex nameIndex;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@Mock
+	private CatalogSnapshotStore snapshotStore;
+	@Mock
+	private CatalogVersion catalogVersion;
+	@Spy
+	private SingleFlight singleFlight;
 
 	private long existingId;
 	private long nonExistingId;
 	private long dependentId;
-	private PageImpl<Product> page;
+	private PageImpl<Long> page;
 	private Product product;
+	private ProductRow productRow;
 	private Category category;
 
 	@BeforeEach
@@ -53,21 +71,23 @@ public class ProductServiceTests {
 		dependentId = 3L;
 		product = ProductFactory.createProduct();
 		category = CategoryFactory.createCategory();
-		page = new PageImpl<>(List.of(product));
+		productRow = ProductFactory.createProductRow();
+		page = new PageImpl<>(List.of(existingId));
 
 		// FindAll
-		Mockito.when(repository.findAll((Pageable) ArgumentMatchers.any())).thenReturn(page);
+		Mockito.when(repository.searchProductIds(ArgumentMatchers.any())).thenReturn(page);
+		Mockito.when(repository.searchProductRows(ArgumentMatchers.anyList())).thenReturn(List.of(productRow));
 
 		// Insert
 		Mockito.when(repository.save(ArgumentMatchers.any())).thenReturn(product);
 
 		// FindById
-		Mockito.when(repository.findById(existingId)).thenReturn(Optional.of(product));
-		Mockito.when(repository.findById(nonExistingId)).thenReturn(Optional.empty());
+		Mockito.when(repository.searchProductRows(existingId)).thenReturn(List.of(productRow));
+		Mockito.when(repository.searchProductRows(nonExistingId)).thenReturn(List.of());
 
 		// Update
-		Mockito.when(repository.getReferenceById(existingId)).thenReturn(product);
-		Mockito.when(repository.getReferenceById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
+		Mockito.when(repository.findWithCategoriesById(existingId)).thenReturn(Optional.of(product));
+		Mockito.when(repository.findWithCategoriesById(nonExistingId)).thenReturn(Optional.empty());
 		Mockito.when(catRepository.getReferenceById(existingId)).thenReturn(category);
 		Mockito.when(catRepository.getReferenceById(nonExistingId)).thenThrow(ResourceNotFoundException.class);
 
@@ -86,7 +106,7 @@ public class ProductServiceTests {
 	public void updateShouldReturnProductDTOWhenIdExists() {
 		ProductDTO dto = service.update(existingId, ProductFactory.createProductDTO());
 		Assertions.assertNotNull(dto);
-		Mockito.verify(repository, Mockito.times(1)).getReferenceById(existingId);
+		Mockito.verify(repository, Mockito.times(1)).findWithCategoriesById(existingId);
 		Mockito.verify(repository, Mockito.times(1)).save(product);
 	}
 
@@ -101,7 +121,7 @@ public class ProductServiceTests {
 	public void findByIdShouldReturnProductDTOWhenIdExists() {
 		ProductDTO dto = service.findById(existingId);
 		Assertions.assertNotNull(dto);
-		Mockito.verify(repository, Mockito.times(1)).findById(existingId);
+		Mockito.verify(repository, Mockito.times(1)).searchProductRows(existingId);
 	}
 
 	@Test
@@ -118,7 +138,7 @@ public class ProductServiceTests {
 		Page<ProductDTO> result = service.findAllPaged(pageable);
 
 		Assertions.assertNotNull(result);
-		Mockito.verify(repository, Mockito.times(1)).findAll(pageable);
+		Mockito.verify(repository, Mockito.times(1)).searchProductIds(pageable);
 	}
 
 	@Test
@@ -0,0 +1,81 @@
+package com.dscatalog.aula.services;
+
+import java.util.function.IntConsumer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dscatalog.aula.repositories.ProductSearchRange;
+import com.dscatalog.aula.services.search.CountMode;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class StatementCountIT {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	public void productFindAllPagedShouldNotDependOnPageSize() {
+		assertConstantStatements(size -> productService.findAllPaged(PageRequest.of(0, size)), 1, 5, 20);
+	}
+
+	@Test
+	public void productSearchAllShouldNotDependOnPageSize() {
+		assertConstantStatements(size -> productService.searchAll("", "0", ProductSearchRange.NONE, CountMode.EXACT, PageRequest.of(0, size)), 1, 5, 20);
+	}
+
+	@Test
+	public void categoryFindAllPagedShouldNotDependOnPageSize() {
+		assertConstantStatements(size -> categoryService.findAllPaged(PageRequest.of(0, size)), 1, 2, 3);
+	}
+
+	@Test
+	public void userFindAllPagedShouldNotDependOnPageSize() {
+		assertConstantStatements(size -> userService.findAllPaged(PageRequest.of(0, size)), 1, 2);
+	}
+
+	// sizes are kept at or below the table size so every page is full and the count query always runs
+	private void assertConstantStatements(IntConsumer call, int... sizes) {
+		long expected = countStatements(call, sizes[0]);
+		for (int size : sizes) {
+			Assertions.assertEquals(expected, countStatements(call, size), "page size " + size);
+		}
+	}
+
+	private long countStatements(IntConsumer call, int size) {
+		entityManager.clear();
+		statistics.clear();
+		call.accept(size);
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -54,8 +54,8 @@ public class UserServiceTests {
         when(repository.searchUserAndRolesByEmail(existingUsername)).thenReturn(userDetails);
         when(repository.searchUserAndRolesByEmail(nonExistingUsername)).thenReturn(new ArrayList<>());
 
-        when(repository.findByEmail(existingUsername)).thenReturn(user);
-        when(repository.findByEmail(nonExistingUsername)).thenThrow(UsernameNotFoundException.class);
+        when(repository.findWithRolesByEmail(existingUsername)).thenReturn(user);
+        when(repository.findWithRolesByEmail(nonExistingUsername)).thenThrow(UsernameNotFoundException.class);
 
     }
 
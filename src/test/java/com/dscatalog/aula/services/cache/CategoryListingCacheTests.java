@@ -0,0 +1,91 @@
+package com.dscatalog.aula.services.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscatalog.aula.services.events.CategoryChangedEvent;
+
+public class CategoryListingCacheTests {
+
+	private CategoryListingCache cache;
+	private List<Runnable> tasks;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new CategoryListingCache();
+		tasks = new ArrayList<>();
+		ReflectionTestUtils.setField(cache, "taskExecutor", (TaskExecutor) tasks::add);
+		ReflectionTestUtils.setField(cache, "maxAgeSeconds", 60L);
+		ReflectionTestUtils.setField(cache, "staleSeconds", 600L);
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	public void getShouldServeFreshValueWithoutLoading() {
+		get();
+
+		Assertions.assertEquals(1, get());
+		Assertions.assertEquals(1, loads.get());
+		Assertions.assertTrue(tasks.isEmpty());
+	}
+
+	@Test
+	public void getShouldServeStaleValueAndRefreshItOnceInBackground() {
+		ReflectionTestUtils.setField(cache, "maxAgeSeconds", 0L);
+		get();
+
+		Assertions.assertEquals(1, get());
+		Assertions.assertEquals(1, get());
+		Assertions.assertEquals(1, tasks.size());
+
+		tasks.get(0).run();
+		Assertions.assertEquals(2, get());
+	}
+
+	@Test
+	public void getShouldLoadAgainOncePastTheStaleWindow() {
+		ReflectionTestUtils.setField(cache, "maxAgeSeconds", 0L);
+		ReflectionTestUtils.setField(cache, "staleSeconds", 0L);
+		get();
+
+		Assertions.assertEquals(2, get());
+		Assertions.assertTrue(tasks.isEmpty());
+	}
+
+	@Test
+	public void onCategoryChangedShouldDropValuesAndDiscardLoadsStartedBefore() {
+		get();
+		cache.onCategoryChanged(new CategoryChangedEvent(1L));
+
+		Integer result = cache.get("all", () -> {
+			cache.onCategoryChanged(new CategoryChangedEvent(1L));
+			return load();
+		});
+
+		Assertions.assertEquals(2, result);
+		Assertions.assertEquals(3, get());
+		Assertions.assertEquals(3, get());
+	}
+
+	@Test
+	public void cacheControlShouldCarryBothWindows() {
+		Assertions.assertEquals("max-age=60, public, stale-while-revalidate=600", cache.cacheControl().getHeaderValue());
+	}
+
+	private Integer get() {
+		return cache.get("all", this::load);
+	}
+
+	private Integer load() {
+		return loads.incrementAndGet();
+	}
+
+}
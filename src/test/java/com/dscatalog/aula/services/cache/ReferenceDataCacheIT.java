@@ -0,0 +1,80 @@
+package com.dscatalog.aula.services.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dscatalog.aula.dto.CacheStatsDTO;
+import com.dscatalog.aula.entities.Category;
+import com.dscatalog.aula.entities.Role;
+import com.dscatalog.aula.repositories.CategoryRepository;
+import com.dscatalog.aula.repositories.ReferenceQueries;
+import com.dscatalog.aula.repositories.RoleRepository;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class ReferenceDataCacheIT {
+
+	@Autowired
+	private ReferenceDataCache cache;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache.evictAll();
+	}
+
+	@Test
+	public void findByAuthorityShouldHitQueryCacheOnSecondCall() {
+		roleRepository.findByAuthority("ROLE_OPERATOR");
+		entityManager.clear();
+		long hits = hits(ReferenceQueries.CACHE_REGION);
+
+		Role role = roleRepository.findByAuthority("ROLE_OPERATOR");
+
+		Assertions.assertEquals("ROLE_OPERATOR", role.getAuthority());
+		Assertions.assertEquals(hits + 1, hits(ReferenceQueries.CACHE_REGION));
+	}
+
+	@Test
+	public void findByIdShouldHitCategoryRegionAfterFirstLoad() {
+		categoryRepository.findById(1L);
+		entityManager.clear();
+		long hits = hits(Category.CACHE_REGION);
+
+		categoryRepository.findById(1L);
+
+		Assertions.assertEquals(hits + 1, hits(Category.CACHE_REGION));
+	}
+
+	@Test
+	public void evictAllShouldForceNextQueryToMiss() {
+		roleRepository.findByAuthority("ROLE_OPERATOR");
+		cache.evictAll();
+		entityManager.clear();
+		long misses = cache.stats().get(ReferenceQueries.CACHE_REGION).getMisses();
+
+		roleRepository.findByAuthority("ROLE_OPERATOR");
+
+		Assertions.assertEquals(misses + 1, cache.stats().get(ReferenceQueries.CACHE_REGION).getMisses());
+	}
+
+	private long hits(String region) {
+		CacheStatsDTO stats = cache.stats().get(region);
+		Assertions.assertNotNull(stats, region);
+		return stats.getHits();
+	}
+}
@@ -0,0 +1,50 @@
+package com.dscatalog.aula.services.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.dscatalog.aula.projections.CategoryStateProjection;
+import com.dscatalog.aula.repositories.CategoryRepository;
+import com.dscatalog.aula.services.CatalogStatsService;
+
+@ExtendWith(SpringExtension.class)
+public class ReferenceDataWatcherTests {
+
+	@InjectMocks
+	private ReferenceDataWatcher watcher;
+
+	@Mock
+	private CategoryRepository repository;
+
+	@Mock
+	private CatalogStatsService statsService;
+
+	@Test
+	public void checkShouldEvictOnlyWhenCategoryStateMoves() {
+		CategoryStateProjection initial = state(3L, 3L, 0L);
+		CategoryStateProjection same = state(3L, 3L, 0L);
+		CategoryStateProjection renamed = state(3L, 3L, 1L);
+		Mockito.when(repository.searchCategoryState()).thenReturn(initial, same, renamed, renamed);
+
+		watcher.check();
+		watcher.check();
+		Mockito.verify(statsService, Mockito.never()).evictReferenceData();
+
+		watcher.check();
+		watcher.check();
+		Mockito.verify(statsService, Mockito.times(1)).evictReferenceData();
+	}
+
+	private static CategoryStateProjection state(Long total, Long maxId, Long versions) {
+		CategoryStateProjection state = Mockito.mock(CategoryStateProjection.class);
+		Mockito.when(state.getTotal()).thenReturn(total);
+		Mockito.when(state.getMaxId()).thenReturn(maxId);
+		Mockito.when(state.getVersions()).thenReturn(versions);
+		return state;
+	}
+
+}
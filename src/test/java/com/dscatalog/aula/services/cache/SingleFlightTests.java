@@ -0,0 +1,104 @@
+package com.dscatalog.aula.services.cache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscatalog.aula.dto.CoalescingStatsDTO;
+import com.dscatalog.aula.services.exceptions.ResourceNotFoundException;
+
+public class SingleFlightTests {
+
+	private SingleFlight singleFlight;
+	private ExecutorService executor;
+	private AtomicInteger loads;
+	private CountDownLatch started;
+	private CountDownLatch release;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		singleFlight = new SingleFlight();
+		ReflectionTestUtils.setField(singleFlight, "enabled", true);
+		executor = Executors.newFixedThreadPool(2);
+		loads = new AtomicInteger();
+		started = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void executeShouldShareTheLeaderResultWithConcurrentCallers() throws Exception {
+		Future<String> leader = executor.submit(() -> singleFlight.execute("test", 1L, this::slowLoad));
+		Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> follower = executor.submit(() -> singleFlight.execute("test", 1L, this::slowLoad));
+		awaitCoalesced(1L);
+		release.countDown();
+
+		Assertions.assertEquals("value", leader.get(5, TimeUnit.SECONDS));
+		Assertions.assertSame(leader.get(), follower.get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, loads.get());
+		CoalescingStatsDTO stats = singleFlight.stats().get("test");
+		Assertions.assertEquals(2L, stats.getCalls());
+		Assertions.assertEquals(0L, stats.getInFlight());
+	}
+
+	@Test
+	public void executeShouldRethrowTheLeaderExceptionToConcurrentCallers() throws Exception {
+		Future<String> leader = executor.submit(() -> singleFlight.<String>execute("test", 1L, () -> {
+			slowLoad();
+			throw new ResourceNotFoundException("Entity not Found");
+		}));
+		Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+		Future<String> follower = executor.submit(() -> singleFlight.<String>execute("test", 1L, this::slowLoad));
+		awaitCoalesced(1L);
+		release.countDown();
+
+		Exception e = Assertions.assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+		Assertions.assertInstanceOf(ResourceNotFoundException.class, e.getCause());
+		Assertions.assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void executeShouldLoadAgainOnceTheCallHasCompleted() {
+		release.countDown();
+		singleFlight.execute("test", 1L, this::slowLoad);
+		singleFlight.execute("test", 1L, this::slowLoad);
+		singleFlight.execute("test", 2L, this::slowLoad);
+
+		Assertions.assertEquals(3, loads.get());
+		Assertions.assertEquals(0L, singleFlight.stats().get("test").getCoalesced());
+	}
+
+	private String slowLoad() {
+		loads.incrementAndGet();
+		started.countDown();
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "value";
+	}
+
+	private void awaitCoalesced(long expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (singleFlight.stats().get("test").getCoalesced() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductRow;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+public class CatalogSnapshotStoreTests {
+
+	private CatalogSnapshotStore store;
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		repository = Mockito.mock(ProductRepository.class);
+		Mockito.when(repository.streamAllProductRows()).thenAnswer(x -> Stream.of(
+				row(1L, "Macbook Pro", 1L),
+				row(2L, "PC Gamer", 1L),
+				row(2L, "PC Gamer", 2L)));
+
+		store = new CatalogSnapshotStore();
+		ReflectionTestUtils.setField(store, "repository", repository);
+		ReflectionTestUtils.setField(store, "taskExecutor", new SyncTaskExecutor());
+		ReflectionTestUtils.setField(store, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(store, "enabled", true);
+		ReflectionTestUtils.setField(store, "maxDirectBytes", 4L * ProductArena.CHUNK);
+		store.onReady();
+	}
+
+	@Test
+	public void onReadyShouldLoadWholeCatalog() {
+		Assertions.assertEquals(2, store.current().size());
+		Assertions.assertEquals(2, store.current().findById(2L).getCategories().size());
+	}
+
+	@Test
+	public void onProductChangedShouldReloadUpdatedAndDropDeletedProducts() {
+		Mockito.when(repository.searchProductRows(ArgumentMatchers.<List<Long>>any()))
+				.thenReturn(List.of(row(2L, "PC Gamer Alfa", 2L)));
+
+		store.onProductChanged(new ProductChangedEvent(2L, null));
+		store.onProductChanged(ProductChangedEvent.deleted(1L));
+
+		Assertions.assertEquals(1, store.current().size());
+		Assertions.assertNull(store.current().findById(1L));
+		ProductDTO dto = store.current().findById(2L);
+		Assertions.assertEquals("PC Gamer Alfa", dto.getName());
+		Assertions.assertEquals(1, dto.getCategories().size());
+	}
+
+	@Test
+	public void findByIdShouldReturnCopiesCallersCanChange() {
+		store.current().findById(1L).setName("Changed");
+		store.current().findById(1L).getCategories().clear();
+
+		Assertions.assertEquals("Macbook Pro", store.current().findById(1L).getName());
+		Assertions.assertEquals(1, store.current().findById(1L).getCategories().size());
+	}
+
+	@Test
+	public void onCategoryChangedShouldDisableSnapshotWhenDirectMemoryBudgetIsExceeded() {
+		ReflectionTestUtils.setField(store, "budget", new ProductArena.Budget(0));
+
+		store.onCategoryChanged(null);
+		store.onCategoryChanged(null);
+		store.onProductChanged(new ProductChangedEvent(2L, null));
+
+		Assertions.assertNull(store.current());
+		Mockito.verify(repository, Mockito.times(2)).streamAllProductRows();
+		Mockito.verify(repository, Mockito.never()).searchProductRows(ArgumentMatchers.<List<Long>>any());
+	}
+
+	@Test
+	public void onCategoryChangedShouldRetryFullRebuildOnNextWriteAfterFailure() {
+		Mockito.when(repository.streamAllProductRows()).thenThrow(new RuntimeException("Connection reset"));
+		store.onCategoryChanged(null);
+
+		Assertions.assertNull(store.current());
+
+		Mockito.doAnswer(x -> Stream.of(row(1L, "Macbook Pro", 1L))).when(repository).streamAllProductRows();
+		store.onProductChanged(new ProductChangedEvent(1L, null));
+
+		Assertions.assertEquals(1, store.current().size());
+	}
+
+	private static ProductRow row(Long id, String name, Long categoryId) {
+		return new ProductRow(id, name, null, 100.0, null, null, 0L, categoryId, "Category " + categoryId);
+	}
+
+}
@@ -0,0 +1,172 @@
+package com.dscatalog.aula.services.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.repositories.CategoryMode;
+import com.dscatalog.aula.repositories.ProductSearchCriteria;
+import com.dscatalog.aula.repositories.ProductSearchRange;
+
+public class CatalogSnapshotTests {
+
+	private CatalogSnapshot snapshot;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		snapshot = CatalogSnapshot.of(List.of(
+				product(3L, "Macbook Pro", 1L),
+				product(1L, "PC Gamer", 1L, 2L),
+				product(2L, "PC Gamer Alfa", 2L),
+				product(4L, "Sem categoria")));
+	}
+
+	@Test
+	public void searchShouldReturnCategorizedProductsOrderedByName() {
+		Page<ProductDTO> result = snapshot.search("", List.of(), ProductSearchRange.NONE, PageRequest.of(0, 10));
+
+		Assertions.assertEquals(List.of(3L, 1L, 2L), ids(result));
+		Assertions.assertEquals(3L, result.getTotalElements());
+	}
+
+	@Test
+	public void searchShouldFilterByNameIgnoringCaseAndByAnyCategory() {
+		Assertions.assertEquals(List.of(1L, 2L), ids(snapshot.search("gAMER", List.of(), ProductSearchRange.NONE, PageRequest.of(0, 10))));
+		Assertions.assertEquals(List.of(3L, 1L), ids(snapshot.search("", List.of(1L), ProductSearchRange.NONE, PageRequest.of(0, 10))));
+		Assertions.assertEquals(List.of(1L), ids(snapshot.search("gamer", List.of(1L, 5L), ProductSearchRange.NONE, PageRequest.of(0, 10))));
+	}
+
+	@Test
+	public void searchShouldRequireAllCategoriesAndSkipExcludedOnes() {
+		ProductSearchCriteria all = new ProductSearchCriteria("", List.of(1L, 2L), CategoryMode.ALL, null, null, null);
+		ProductSearchCriteria excluded = new ProductSearchCriteria("", List.of(), CategoryMode.ANY, List.of(1L), null, null);
+
+		Assertions.assertEquals(List.of(1L), ids(snapshot.search(all, PageRequest.of(0, 10))));
+		Assertions.assertEquals(List.of(2L), ids(snapshot.search(excluded, PageRequest.of(0, 10))));
+	}
+
+	@Test
+	public void searchShouldPageWithExactTotal() {
+		Page<ProductDTO> result = snapshot.search("", List.of(), ProductSearchRange.NONE, PageRequest.of(1, 2));
+
+		Assertions.assertEquals(List.of(2L), ids(result));
+		Assertions.assertEquals(3L, result.getTotalElements());
+	}
+
+	@Test
+	public void withShouldReplaceAddAndRemoveWithoutChangingOriginal() {
+		CatalogSnapshot next = snapshot.with(List.of(product(1L, "Apple PC", 1L), product(5L, "Zeta", 2L)), List.of(3L));
+
+		Assertions.assertEquals(List.of(1L, 2L, 5L), ids(next.search("", List.of(), ProductSearchRange.NONE, PageRequest.of(0, 10))));
+		Assertions.assertEquals("Apple PC", next.findById(1L).getName());
+		Assertions.assertNull(next.findById(3L));
+		Assertions.assertEquals("PC Gamer", snapshot.findById(1L).getName());
+		Assertions.assertEquals(4, snapshot.size());
+	}
+
+	@Test
+	public void findByIdShouldDecodeEveryFieldIncludingNulls() {
+		Instant date = Instant.parse("2020-07-14T10:00:00.123456789Z");
+		ProductDTO full = new ProductDTO(6L, "Câmera Ação", "Descrição", 1250.5, "https://img/6.jpg", date);
+		full.setVersion(3L);
+		full.getCategories().add(new CategoryDTO(2L, "Eletrônicos"));
+		CatalogSnapshot next = snapshot.with(List.of(full), List.of());
+
+		ProductDTO result = next.findById(6L);
+		ProductDTO empty = CatalogSnapshot.of(List.of(product(7L, null))).findById(7L);
+
+		Assertions.assertEquals("Câmera Ação", result.getName());
+		Assertions.assertEquals("Descrição", result.getDescription());
+		Assertions.assertEquals(1250.5, result.getPrice());
+		Assertions.assertEquals("https://img/6.jpg", result.getImgUrl());
+		Assertions.assertEquals(date, result.getDate());
+		Assertions.assertEquals(3L, result.getVersion());
+		Assertions.assertEquals("Eletrônicos", result.getCategories().get(0).getName());
+		Assertions.assertEquals(List.of(6L), ids(next.search("AÇÃO", List.of(), ProductSearchRange.NONE, PageRequest.of(0, 10))));
+		Assertions.assertNull(empty.getName());
+		Assertions.assertNull(empty.getPrice());
+		Assertions.assertNull(empty.getDate());
+		Assertions.assertNull(empty.getVersion());
+	}
+
+	@Test
+	public void withShouldCompactArenaOnceMostRecordsAreDead() {
+		CatalogSnapshot next = snapshot;
+		String description = "x".repeat(100_000);
+		for (int i = 0; i < 400; i++) {
+			ProductDTO dto = product(1L, "PC Gamer " + i, 1L);
+			dto.setDescription(description);
+			next = next.with(List.of(dto), List.of());
+		}
+
+		Assertions.assertTrue(next.offHeapBytes() < 3L * ProductArena.CHUNK);
+		Assertions.assertEquals("PC Gamer 399", next.findById(1L).getName());
+		Assertions.assertEquals(List.of(3L, 1L, 2L), ids(next.search("", List.of(), ProductSearchRange.NONE, PageRequest.of(0, 10))));
+	}
+
+	@Test
+	public void withShouldMoveCategoriesOfShiftedProductsLikeFullBuild() {
+		List<ProductDTO> products = new ArrayList<>();
+		for (long id = 1; id <= 200; id++) {
+			products.add(product(id, String.format("P%03d", id), id % 3 + 1));
+		}
+		CatalogSnapshot next = CatalogSnapshot.of(products).with(
+				List.of(product(500L, "P000", 1L), product(70L, "P150a", 2L), product(501L, "P199a", 3L)),
+				List.of(2L, 3L, 130L));
+
+		products.removeIf(x -> List.of(2L, 3L, 130L, 70L).contains(x.getId()));
+		products.addAll(List.of(product(500L, "P000", 1L), product(70L, "P150a", 2L), product(501L, "P199a", 3L)));
+		CatalogSnapshot expected = CatalogSnapshot.of(products);
+		for (long categoryId = 1; categoryId <= 3; categoryId++) {
+			ProductSearchCriteria criteria = new ProductSearchCriteria("", List.of(categoryId), CategoryMode.ANY,
+					List.of(), null, null);
+			Assertions.assertEquals(ids(expected.search(criteria, Pageable.unpaged())),
+					ids(next.search(criteria, Pageable.unpaged())));
+		}
+		Assertions.assertEquals("P150a", next.findById(70L).getName());
+		Assertions.assertEquals(200, next.size());
+	}
+
+	@Test
+	public void withShouldThrowIllegalStateExceptionPastDirectMemoryBudget() {
+		ProductArena.Budget budget = new ProductArena.Budget(ProductArena.CHUNK);
+		CatalogSnapshot small = CatalogSnapshot.of(List.of(product(1L, "PC Gamer", 1L)).iterator(), budget);
+		ProductDTO large = product(2L, "PC Gamer Alfa", 1L);
+		large.setDescription("x".repeat(ProductArena.CHUNK));
+
+		Assertions.assertThrows(IllegalStateException.class, () -> small.with(List.of(large), List.of()));
+		Assertions.assertEquals(ProductArena.CHUNK, budget.used());
+	}
+
+	@Test
+	public void findVersionShouldReadVersionWithoutDecodingAndReturnNullWhenAbsent() {
+		ProductDTO versioned = product(5L, "Smart TV", 1L);
+		versioned.setVersion(7L);
+		CatalogSnapshot next = snapshot.with(List.of(versioned), List.of());
+
+		Assertions.assertEquals(7L, next.findVersion(5L).getVersion());
+		Assertions.assertNull(next.findVersion(4L).getVersion());
+		Assertions.assertNull(next.findVersion(9L));
+	}
+
+	private static ProductDTO product(Long id, String name, Long... categoryIds) {
+		ProductDTO dto = new ProductDTO(id, name, null, null, null, null);
+		for (Long categoryId : categoryIds) {
+			dto.getCategories().add(new CategoryDTO(categoryId, null));
+		}
+		return dto;
+	}
+
+	private static List<Long> ids(Page<ProductDTO> page) {
+		return page.getContent().stream().map(ProductDTO::getId).toList();
+	}
+}
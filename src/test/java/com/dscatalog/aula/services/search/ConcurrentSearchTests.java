@@ -0,0 +1,101 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscatalog.aula.services.exceptions.BadRequestException;
+import com.dscatalog.aula.services.exceptions.SearchTimeoutException;
+
+public class ConcurrentSearchTests {
+
+	private ConcurrentSearch search;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		search = new ConcurrentSearch();
+		ReflectionTestUtils.setField(search, "threads", 2);
+		ReflectionTestUtils.setField(search, "queueCapacity", 1);
+		ReflectionTestUtils.setField(search, "connections", 10);
+		ReflectionTestUtils.setField(search, "timeoutMillis", 500L);
+		search.start();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		search.stop();
+	}
+
+	@Test
+	public void joinShouldRunBothSuppliersConcurrently() {
+		CountDownLatch latch = new CountDownLatch(2);
+
+		String result = search.join(() -> await(latch, "page"), () -> await(latch, "count"), (a, b) -> a + "/" + b);
+
+		Assertions.assertEquals("page/count", result);
+	}
+
+	@Test
+	public void joinShouldThrowSearchTimeoutExceptionWhenQueriesAreTooSlow() {
+		Assertions.assertThrows(SearchTimeoutException.class, () -> {
+			search.join(() -> "page", () -> await(new CountDownLatch(2), "count"), (a, b) -> a + b);
+		});
+	}
+
+	@Test
+	public void joinShouldRethrowExceptionOfEitherSupplier() {
+		Assertions.assertThrows(BadRequestException.class, () -> {
+			search.join(() -> "page", () -> {
+				throw new BadRequestException("Invalid");
+			}, (a, b) -> a + b);
+		});
+	}
+
+	@Test
+	public void joinShouldRunSuppliersOnCallerWhenQueueIsFull() {
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(search, "executor");
+		CountDownLatch release = new CountDownLatch(1);
+		for (int i = 0; i < 3; i++) {
+			executor.execute(() -> {
+				try {
+					release.await(2, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+		String caller = Thread.currentThread().getName();
+
+		String result = search.join(() -> Thread.currentThread().getName(), () -> Thread.currentThread().getName(),
+				(a, b) -> a + "/" + b);
+
+		release.countDown();
+		Assertions.assertEquals(caller + "/" + caller, result);
+	}
+
+	@Test
+	public void startShouldSizePoolAtHalfOfConnectionsByDefault() {
+		search.stop();
+		ReflectionTestUtils.setField(search, "threads", 0);
+		search.start();
+
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(search, "executor");
+		Assertions.assertEquals(5, executor.getMaximumPoolSize());
+	}
+
+	private static String await(CountDownLatch latch, String value) {
+		latch.countDown();
+		try {
+			return latch.await(2, TimeUnit.SECONDS) ? value : null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+}
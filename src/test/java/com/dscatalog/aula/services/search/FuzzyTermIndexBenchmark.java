@@ -0,0 +1,115 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+
+/**
+ * Fuzzy search latency over a synthetic catalog. Names are two to five words
+ * drawn with a skewed frequency from a 20k word vocabulary; queries are the
+ * first two words of a random product with two letters swapped in the longer
+ * ones. Run with main(); the sample mode reports percentiles per operation.
+ * It is not part of the build and no results are recorded here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class FuzzyTermIndexBenchmark {
+
+	@Param({ "1000000" })
+	private int products;
+
+	private FuzzyTermIndex index;
+	private String[] queries;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		String[] vocabulary = new String[20000];
+		for (int i = 0; i < vocabulary.length; i++) {
+			char[] word = new char[3 + random.nextInt(8)];
+			for (int j = 0; j < word.length; j++) {
+				word[j] = (char) ('a' + random.nextInt(26));
+			}
+			vocabulary[i] = new String(word);
+		}
+
+		List<ProductProjection> names = new ArrayList<>(products);
+		for (long id = 1; id <= products; id++) {
+			StringBuilder name = new StringBuilder();
+			for (int w = 2 + random.nextInt(4); w > 0; w--) {
+				int rank = (int) Math.min(vocabulary.length - 1, Math.abs(random.nextGaussian()) * vocabulary.length / 3);
+				name.append(vocabulary[rank]).append(' ');
+			}
+			names.add(new Name(id, name.toString().trim()));
+		}
+		ProductRepository repository = Mockito.mock(ProductRepository.class);
+		Mockito.when(repository.searchProductNames()).thenReturn(names);
+		index = new FuzzyTermIndex();
+		ReflectionTestUtils.setField(index, "repository", repository);
+		ReflectionTestUtils.setField(index, "maxDistance", 2);
+		index.rebuild();
+
+		queries = new String[4096];
+		for (int i = 0; i < queries.length; i++) {
+			String[] words = names.get(random.nextInt(products)).getName().split(" ");
+			StringBuilder query = new StringBuilder();
+			for (int w = 0; w < 2; w++) {
+				String word = words[w];
+				if (word.length() > 4) {
+					int p = random.nextInt(word.length() - 1);
+					word = word.substring(0, p) + word.charAt(p + 1) + word.charAt(p) + word.substring(p + 2);
+				}
+				query.append(word).append(' ');
+			}
+			queries[i] = query.toString().trim();
+		}
+	}
+
+	@Benchmark
+	public List<Long> search() {
+		String query = queries[next++ & (queries.length - 1)];
+		return index.search(query, 1000);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(FuzzyTermIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	private record Name(Long id, String name) implements ProductProjection {
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+public class FuzzyTermIndexTests {
+
+	private FuzzyTermIndex index;
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		repository = Mockito.mock(ProductRepository.class);
+		Mockito.when(repository.searchProductNames()).thenReturn(List.of(
+				projection(1L, "The Lord of the Rings"),
+				projection(2L, "Smart TV"),
+				projection(3L, "Macbook Pro"),
+				projection(4L, "PC Gamer"),
+				projection(5L, "PC Gamers")));
+		index = new FuzzyTermIndex();
+		ReflectionTestUtils.setField(index, "repository", repository);
+		ReflectionTestUtils.setField(index, "maxDistance", 2);
+		index.rebuild();
+	}
+
+	@Test
+	public void searchShouldMatchEveryWordWithinAllowedDistance() {
+		Assertions.assertEquals(List.of(1L), index.search("lord of the rigns", 10));
+		Assertions.assertEquals(List.of(3L), index.search("macbok", 10));
+		Assertions.assertEquals(List.of(), index.search("lord tv", 10));
+	}
+
+	@Test
+	public void searchShouldRankByDistanceThenId() {
+		Assertions.assertEquals(List.of(4L, 5L), index.search("pc gamer", 10));
+		Assertions.assertEquals(List.of(5L, 4L), index.search("pc gamerss", 10));
+		Assertions.assertEquals(List.of(4L), index.search("pc gamer", 1));
+	}
+
+	@Test
+	public void searchShouldNotTolerateTyposInShortWords() {
+		Assertions.assertEquals(List.of(), index.search("px gamer", 10));
+		Assertions.assertNull(index.search(" - ", 10));
+	}
+
+	@Test
+	public void normalizeShouldLowerCaseWordsAndDropSeparators() {
+		Assertions.assertEquals("lord of the rigns", FuzzyTermIndex.normalize("  Lord of-THE  rigns!"));
+		Assertions.assertEquals("", FuzzyTermIndex.normalize(" - "));
+	}
+
+	@Test
+	public void onProductChangedShouldReindexAndRemoveProducts() {
+		index.onProductChanged(new ProductChangedEvent(2L, new ProductDTO(2L, "Smart Watch", null, null, null, null)));
+		index.onProductChanged(ProductChangedEvent.deleted(3L));
+
+		Assertions.assertEquals(List.of(), index.search("smart tv", 10));
+		Assertions.assertEquals(List.of(2L), index.search("smrt wtch", 10));
+		Assertions.assertEquals(List.of(), index.search("macbook", 10));
+	}
+
+	@Test
+	public void distanceShouldCountAdjacentTranspositionAsOneEdit() {
+		Assertions.assertEquals(1, FuzzyTermIndex.distance("rigns", "rings", 2));
+		Assertions.assertEquals(2, FuzzyTermIndex.distance("gamr", "gamers", 2));
+		Assertions.assertEquals(3, FuzzyTermIndex.distance("abc", "xyz", 2));
+	}
+
+	@Test
+	public void rebuildShouldKeepEventsAppliedWhileLoading() {
+		List<ProductProjection> list = List.of(projection(2L, "Smart TV"));
+		Mockito.when(repository.searchProductNames()).thenAnswer(invocation -> {
+			index.onProductChanged(new ProductChangedEvent(2L, new ProductDTO(2L, "Smart Watch", null, null, null, null)));
+			return list;
+		});
+
+		index.rebuild();
+
+		Assertions.assertEquals(List.of(2L), index.search("smrt wtch", 10));
+		Assertions.assertEquals(List.of(), index.search("smart tv", 10));
+	}
+
+	private static ProductProjection projection(Long id, String name) {
+		ProductProjection projection = Mockito.mock(ProductProjection.class);
+		Mockito.when(projection.getId()).thenReturn(id);
+		Mockito.when(projection.getName()).thenReturn(name);
+		return projection;
+	}
+}
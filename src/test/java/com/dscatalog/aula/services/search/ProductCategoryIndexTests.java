@@ -0,0 +1,100 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.dscatalog.aula.dto.CategoryDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.repositories.CategoryMode;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+import com.dscatalog.aula.utils.RoaringBitmap;
+
+@ExtendWith(SpringExtension.class)
+public class ProductCategoryIndexTests {
+
+	@InjectMocks
+	private ProductCategoryIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Mockito.when(repository.searchProductCategories()).thenReturn(new ArrayList<>());
+		index.rebuild();
+
+		index.onProductChanged(new ProductChangedEvent(1L, product(1L, 1L, 2L)));
+		index.onProductChanged(new ProductChangedEvent(2L, product(2L, 2L)));
+		index.onProductChanged(new ProductChangedEvent(3L, product(3L, 1L, 3L)));
+	}
+
+	@Test
+	public void selectShouldIntersectCategoriesInAllMode() {
+		Assertions.assertArrayEquals(new long[] { 1L }, index.select(List.of(1L, 2L), CategoryMode.ALL, List.of()).toArray());
+		Assertions.assertArrayEquals(new long[] {}, index.select(List.of(1L, 5L), CategoryMode.ALL, List.of()).toArray());
+	}
+
+	@Test
+	public void selectShouldUniteCategoriesInAnyModeAndSkipExcludedOnes() {
+		Assertions.assertArrayEquals(new long[] { 1L, 2L, 3L }, index.select(List.of(2L, 3L), CategoryMode.ANY, List.of()).toArray());
+		Assertions.assertArrayEquals(new long[] { 2L }, index.select(List.of(), CategoryMode.ANY, List.of(1L)).toArray());
+	}
+
+	@Test
+	public void countShouldCountGivenProductsPerCategory() {
+		Assertions.assertEquals(Map.of(1L, 2L, 2L, 1L, 3L, 1L), index.count(RoaringBitmap.of(1L, 3L)));
+		Assertions.assertEquals(Map.of(2L, 1L), index.count(RoaringBitmap.of(2L)));
+	}
+
+	@Test
+	public void onProductChangedShouldMoveAndRemoveProducts() {
+		index.onProductChanged(new ProductChangedEvent(2L, product(2L, 1L)));
+		index.onProductChanged(ProductChangedEvent.deleted(3L));
+
+		Assertions.assertArrayEquals(new long[] { 1L, 2L }, index.select(List.of(1L), CategoryMode.ANY, List.of()).toArray());
+		Assertions.assertArrayEquals(new long[] { 1L }, index.select(List.of(2L), CategoryMode.ANY, List.of()).toArray());
+	}
+
+	@Test
+	public void onProductChangedShouldReplaceCategoriesOnlyWhenPatchSentThem() {
+		index.onProductChanged(ProductChangedEvent.patched(1L, new ProductDTO(1L, "Renamed", null, null, null, null), false));
+		index.onProductChanged(ProductChangedEvent.patched(2L, product(2L, 3L), true));
+
+		Assertions.assertArrayEquals(new long[] { 1L, 3L }, index.select(List.of(1L), CategoryMode.ANY, List.of()).toArray());
+		Assertions.assertArrayEquals(new long[] { 1L }, index.select(List.of(2L), CategoryMode.ANY, List.of()).toArray());
+		Assertions.assertArrayEquals(new long[] { 2L, 3L }, index.select(List.of(3L), CategoryMode.ANY, List.of()).toArray());
+	}
+
+	@Test
+	public void rebuildShouldKeepEventsAppliedWhileLoading() {
+		Mockito.when(repository.searchProductCategories()).thenAnswer(invocation -> {
+			index.onProductChanged(new ProductChangedEvent(4L, product(4L, 5L)));
+			return new ArrayList<>();
+		});
+
+		index.rebuild();
+
+		Assertions.assertArrayEquals(new long[] { 4L }, index.select(List.of(5L), CategoryMode.ANY, List.of()).toArray());
+		Assertions.assertArrayEquals(new long[] {}, index.select(List.of(1L), CategoryMode.ANY, List.of()).toArray());
+	}
+
+	private static ProductDTO product(Long id, Long... categoryIds) {
+		ProductDTO dto = new ProductDTO(id, "Product " + id, null, null, null, null);
+		for (Long categoryId : categoryIds) {
+			dto.getCategories().add(new CategoryDTO(categoryId, null));
+		}
+		return dto;
+	}
+
+}
@@ -0,0 +1,87 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+@ExtendWith(SpringExtension.class)
+public class ProductNameIndexTests {
+
+	@InjectMocks
+	private ProductNameIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Mockito.when(repository.searchProductNames()).thenReturn(new ArrayList<>());
+		index.rebuild();
+
+		index.onProductChanged(new ProductChangedEvent(1L, new ProductDTO(1L, "PC Gamer", null, null, null, null)));
+		index.onProductChanged(new ProductChangedEvent(2L, new ProductDTO(2L, "PC Gamer Alfa", null, null, null, null)));
+		index.onProductChanged(new ProductChangedEvent(3L, new ProductDTO(3L, "Macbook Pro", null, null, null, null)));
+	}
+
+	@Test
+	public void candidatesShouldReturnMatchingIdsIgnoringCase() {
+		Set<Long> result = index.candidates("gAMER");
+
+		Assertions.assertEquals(Set.of(1L, 2L), result);
+	}
+
+	@Test
+	public void candidatesShouldReturnEmptySetWhenNoNameMatches() {
+		Set<Long> result = index.candidates("phone");
+
+		Assertions.assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void candidatesShouldNotMatchTrigramsOutOfOrder() {
+		Set<Long> result = index.candidates("pro macbook");
+
+		Assertions.assertTrue(result.isEmpty());
+	}
+
+	@Test
+	public void candidatesShouldReturnNullWhenTermIsShorterThanTrigram() {
+		Assertions.assertNull(index.candidates("pc"));
+		Assertions.assertNull(index.candidates(""));
+	}
+
+	@Test
+	public void candidatesShouldFollowUpdatesAndDeletes() {
+		index.onProductChanged(new ProductChangedEvent(3L, new ProductDTO(3L, "Gamer Notebook", null, null, null, null)));
+		index.onProductChanged(ProductChangedEvent.deleted(1L));
+
+		Assertions.assertEquals(Set.of(2L, 3L), index.candidates("gamer"));
+		Assertions.assertTrue(index.candidates("macbook").isEmpty());
+	}
+
+	@Test
+	public void rebuildShouldKeepEventsAppliedWhileLoading() {
+		Mockito.when(repository.searchProductNames()).thenAnswer(invocation -> {
+			index.onProductChanged(new ProductChangedEvent(4L, new ProductDTO(4L, "Gamer Chair", null, null, null, null)));
+			return new ArrayList<>();
+		});
+
+		index.rebuild();
+
+		Assertions.assertEquals(Set.of(4L), index.candidates("chair"));
+		Assertions.assertEquals(1, index.size());
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.dscatalog.aula.services.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.dscatalog.aula.repositories.ProductSearchRange;
+
+/**
+ * Price and date range filter over a catalog of random products, into a bitmap
+ * of matching rows: row by row over boxed objects, with a branching loop over
+ * the primitive columns, and with the branch-free loops of ProductRangeIndex.
+ * Run with main().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductRangeIndexBenchmark {
+
+	private static final long START = Instant.parse("2020-01-01T00:00:00Z").getEpochSecond();
+	private static final int SPAN = 5 * 365 * 24 * 3600;
+
+	@Param({ "1000000", "10000000" })
+	private int size;
+
+	private final ProductSearchRange range = new ProductSearchRange(1000.0, 3000.0,
+			Instant.ofEpochSecond(START + SPAN / 4), Instant.ofEpochSecond(START + SPAN * 3L / 4));
+
+	private List<Row> rows;
+	private double[] prices;
+	private long[] dates;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		rows = new ArrayList<>(size);
+		prices = new double[size];
+		dates = new long[size];
+		for (int i = 0; i < size; i++) {
+			Double price = random.nextInt(20) == 0 ? null : random.nextInt(500_000) / 100.0;
+			Instant date = random.nextInt(20) == 0 ? null : Instant.ofEpochSecond(START + random.nextInt(SPAN));
+			rows.add(new Row(price, date));
+			prices[i] = ProductRangeIndex.price(price);
+			dates[i] = ProductRangeIndex.date(date);
+		}
+	}
+
+	@Benchmark
+	public long[] objects() {
+		long[] words = new long[(size + 63) >>> 6];
+		for (int i = 0; i < size; i++) {
+			Row row = rows.get(i);
+			if (range.contains(row.price(), row.date())) {
+				words[i >>> 6] |= 1L << i;
+			}
+		}
+		return words;
+	}
+
+	@Benchmark
+	public long[] scalarColumns() {
+		long[] words = new long[(size + 63) >>> 6];
+		double min = range.minPrice(), max = range.maxPrice();
+		long from = ProductRangeIndex.date(range.fromDate()), to = ProductRangeIndex.date(range.toDate());
+		for (int i = 0; i < size; i++) {
+			if (prices[i] >= min && prices[i] <= max && dates[i] >= from && dates[i] <= to) {
+				words[i >>> 6] |= 1L << i;
+			}
+		}
+		return words;
+	}
+
+	@Benchmark
+	public long[] branchFreeColumns() {
+		long[] words = new long[(size + 63) >>> 6];
+		Arrays.fill(words, -1L);
+		ProductRangeIndex.filterPrices(prices, size, range.minPrice(), range.maxPrice(), words);
+		ProductRangeIndex.filterDates(dates, size, ProductRangeIndex.date(range.fromDate()),
+				ProductRangeIndex.date(range.toDate()), words);
+		return words;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(ProductRangeIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	private record Row(Double price, Instant date) {
+	}
+}
@@ -0,0 +1,138 @@
+package com.dscatalog.aula.services.search;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductRangeProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.repositories.ProductSearchRange;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+@ExtendWith(SpringExtension.class)
+public class ProductRangeIndexTests {
+
+	private static final Instant DATE = Instant.parse("2020-07-14T10:00:00Z");
+
+	@InjectMocks
+	private ProductRangeIndex index;
+
+	@Mock
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		// 200 products, price = id and date = DATE + id seconds; product 7 has neither
+		List<ProductRangeProjection> rows = new ArrayList<>();
+		for (long id = 1; id <= 200; id++) {
+			rows.add(row(id, id == 7 ? null : (double) id, id == 7 ? null : DATE.plusSeconds(id)));
+		}
+		Mockito.when(repository.searchProductRanges()).thenReturn(rows);
+		index.rebuild();
+	}
+
+	@Test
+	public void selectShouldReturnIdsInRangeAndSkipProductsWithoutPriceOrDate() {
+		ProductSearchRange range = new ProductSearchRange(5.0, 9.0, null, null);
+
+		Assertions.assertArrayEquals(new long[] { 5L, 6L, 8L, 9L }, index.select(range, null, 100));
+		Assertions.assertArrayEquals(new long[] { 6L, 8L, 9L, 10L },
+				index.select(new ProductSearchRange(null, null, DATE.plusSeconds(6), DATE.plusSeconds(10)), null, 100));
+	}
+
+	@Test
+	public void countPricesShouldBucketCandidatesAndSkipProductsWithoutPrice() {
+		double[] boundaries = { 5.0, 10.0, 100.0 };
+		long[] all = LongStream.rangeClosed(1, 200).toArray();
+
+		Assertions.assertArrayEquals(new long[] { 4L, 90L, 101L }, index.countPrices(boundaries, all));
+		Assertions.assertArrayEquals(new long[] { 1L, 0L, 1L }, index.countPrices(boundaries, new long[] { 1L, 6L, 7L, 150L }));
+		Assertions.assertArrayEquals(new long[] { 1L, 0L, 0L }, index.countPrices(boundaries, new long[] { 5L, 7L }));
+	}
+
+	@Test
+	public void selectShouldReturnNullWhenMoreProductsThanLimitMatch() {
+		Assertions.assertNull(index.select(new ProductSearchRange(1.0, 100.0, null, null), null, 50));
+	}
+
+	@Test
+	public void selectShouldRoundDateBoundsToTheMicrosecond() {
+		ProductSearchRange range = new ProductSearchRange(null, null, DATE.plusSeconds(5).minusNanos(1),
+				DATE.plusSeconds(6).plusNanos(999));
+
+		Assertions.assertArrayEquals(new long[] { 5L, 6L }, index.select(range, null, 100));
+		Assertions.assertArrayEquals(new long[] {},
+				index.select(new ProductSearchRange(null, null, DATE.plusSeconds(5).plusNanos(1), DATE.plusSeconds(5).plusNanos(999)), null, 100));
+	}
+
+	@Test
+	public void selectShouldKeepOnlyCandidatesInRangeWhetherScanningOrLookingUp() {
+		ProductSearchRange range = new ProductSearchRange(100.0, 150.0, null, null);
+		long[] many = LongStream.rangeClosed(90, 300).filter(id -> id % 2 == 0).toArray();
+
+		Assertions.assertArrayEquals(LongStream.rangeClosed(100, 150).filter(id -> id % 2 == 0).toArray(),
+				index.select(range, many, 0));
+		Assertions.assertArrayEquals(new long[] { 120L }, index.select(range, new long[] { 7L, 120L }, 0));
+	}
+
+	@Test
+	public void onProductChangedShouldInsertPatchAndRemoveProducts() {
+		index.onProductChanged(new ProductChangedEvent(250L, new ProductDTO(250L, "New", null, 1000.0, null, DATE)));
+		index.onProductChanged(ProductChangedEvent.patched(10L, new ProductDTO(10L, null, null, 1001.0, null, null), false));
+		index.onProductChanged(ProductChangedEvent.patched(300L, new ProductDTO(300L, null, null, 1002.0, null, null), false));
+		index.onProductChanged(new ProductChangedEvent(11L, new ProductDTO(11L, "No date", null, 1003.0, null, null)));
+		index.onProductChanged(ProductChangedEvent.deleted(250L));
+
+		ProductSearchRange range = new ProductSearchRange(1000.0, null, null, null);
+		Assertions.assertArrayEquals(new long[] { 10L, 11L }, index.select(range, null, 100));
+		Assertions.assertArrayEquals(new long[] { 10L },
+				index.select(new ProductSearchRange(1000.0, null, DATE, null), null, 100));
+	}
+
+	@Test
+	public void rebuildShouldKeepEventsAppliedWhileLoading() {
+		List<ProductRangeProjection> rows = List.of(row(1L, 1.0, DATE), row(2L, 2.0, DATE));
+		Mockito.when(repository.searchProductRanges()).thenAnswer(invocation -> {
+			index.onProductChanged(ProductChangedEvent.patched(1L, new ProductDTO(1L, null, null, 1000.0, null, null), false));
+			index.onProductChanged(ProductChangedEvent.deleted(2L));
+			return rows;
+		});
+
+		index.rebuild();
+
+		Assertions.assertArrayEquals(new long[] { 1L }, index.select(new ProductSearchRange(1000.0, null, null, null), null, 100));
+		Assertions.assertArrayEquals(new long[] { 1L }, index.select(new ProductSearchRange(null, null, DATE, null), null, 100));
+	}
+
+	private static ProductRangeProjection row(Long id, Double price, Instant date) {
+		return new ProductRangeProjection() {
+
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public Double getPrice() {
+				return price;
+			}
+
+			@Override
+			public Instant getDate() {
+				return date;
+			}
+		};
+	}
+
+}
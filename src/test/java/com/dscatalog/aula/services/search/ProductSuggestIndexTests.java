@@ -0,0 +1,83 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.ProductProjection;
+import com.dscatalog.aula.repositories.ProductRepository;
+import com.dscatalog.aula.services.events.ProductChangedEvent;
+
+public class ProductSuggestIndexTests {
+
+	private ProductSuggestIndex index;
+	private ProductRepository repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		repository = Mockito.mock(ProductRepository.class);
+		Mockito.when(repository.searchProductNames()).thenReturn(List.of(
+				projection(1L, "PC Gamer"),
+				projection(2L, "PC Gamer Alfa"),
+				projection(3L, "PC  Gamer Boo"),
+				projection(4L, "Macbook Pro"),
+				projection(5L, "PC Gamer Alfa")));
+		index = new ProductSuggestIndex();
+		ReflectionTestUtils.setField(index, "repository", repository);
+		ReflectionTestUtils.setField(index, "taskExecutor", new SyncTaskExecutor());
+		index.rebuild();
+	}
+
+	@Test
+	public void suggestShouldRankByProductCountThenAlphabetically() {
+		Assertions.assertEquals(List.of("PC Gamer Alfa", "PC Gamer", "PC Gamer Boo"), index.suggest("pc g", 10));
+		Assertions.assertEquals(List.of("PC Gamer Alfa"), index.suggest("PC", 1));
+		Assertions.assertEquals(List.of("Macbook Pro"), index.suggest("macbook p", 10));
+		Assertions.assertEquals(List.of(), index.suggest("pc x", 10));
+		Assertions.assertEquals(List.of(), index.suggest(" ", 10));
+	}
+
+	@Test
+	public void recordViewShouldRaiseWeightOfViewedName() {
+		index.recordView(3L);
+		index.recordView(3L);
+
+		Assertions.assertEquals(List.of("PC Gamer Boo", "PC Gamer Alfa", "PC Gamer"), index.suggest("pc", 10));
+	}
+
+	@Test
+	public void onProductChangedShouldMoveAndRemoveNames() {
+		index.recordView(1L);
+		index.onProductChanged(new ProductChangedEvent(1L, new ProductDTO(1L, "Mac Mini", null, null, null, null)));
+		index.onProductChanged(ProductChangedEvent.deleted(4L));
+
+		Assertions.assertEquals(List.of("Mac Mini"), index.suggest("mac", 10));
+		Assertions.assertEquals(List.of("PC Gamer Alfa", "PC Gamer Boo"), index.suggest("pc", 10));
+	}
+
+	@Test
+	public void rebuildShouldKeepEventsAppliedWhileLoading() {
+		List<ProductProjection> list = List.of(projection(4L, "Macbook Pro"));
+		Mockito.when(repository.searchProductNames()).thenAnswer(invocation -> {
+			index.onProductChanged(new ProductChangedEvent(4L, new ProductDTO(4L, "Mac Mini", null, null, null, null)));
+			return list;
+		});
+
+		index.rebuild();
+
+		Assertions.assertEquals(List.of("Mac Mini"), index.suggest("mac", 10));
+	}
+
+	private static ProductProjection projection(Long id, String name) {
+		ProductProjection projection = Mockito.mock(ProductProjection.class);
+		Mockito.when(projection.getId()).thenReturn(id);
+		Mockito.when(projection.getName()).thenReturn(name);
+		return projection;
+	}
+}
@@ -0,0 +1,58 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class SearchCountCacheTests {
+
+	private SearchCountCache cache;
+	private AtomicInteger counts;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new SearchCountCache();
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+		ReflectionTestUtils.setField(cache, "maxEntries", 2);
+		counts = new AtomicInteger();
+	}
+
+	@Test
+	public void getShouldCountOnceWhileVersionIsUnchanged() {
+		cache.get(0L, "gamer", this::count);
+		long result = cache.get(0L, "gamer", this::count);
+
+		Assertions.assertEquals(1L, result);
+		Assertions.assertEquals(1, counts.get());
+	}
+
+	@Test
+	public void getShouldCountAgainAfterVersionChanges() {
+		cache.get(0L, "gamer", this::count);
+		long result = cache.get(1L, "gamer", this::count);
+
+		Assertions.assertEquals(2L, result);
+		Assertions.assertEquals(2, counts.get());
+	}
+
+	@Test
+	public void getShouldEvictLeastRecentlyUsedEntryWhenFull() {
+		cache.get(0L, "a", this::count);
+		cache.get(0L, "b", this::count);
+		cache.get(0L, "a", this::count);
+		cache.get(0L, "c", this::count);
+
+		cache.get(0L, "a", this::count);
+		Assertions.assertEquals(3, counts.get());
+		cache.get(0L, "b", this::count);
+		Assertions.assertEquals(4, counts.get());
+	}
+
+	private long count() {
+		return counts.incrementAndGet();
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.dscatalog.aula.services.search;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dscatalog.aula.dto.CacheStatsDTO;
+import com.dscatalog.aula.dto.ProductDTO;
+
+public class SearchResultCacheTests {
+
+	private SearchResultCache cache;
+	private AtomicInteger loads;
+	private Slice<ProductDTO> page;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		cache = new SearchResultCache();
+		ReflectionTestUtils.setField(cache, "maxBytes", 1024L * 1024L);
+		loads = new AtomicInteger();
+		page = new PageImpl<>(List.of(new ProductDTO(1L, "PC Gamer", "desc", 1200.0, "img", null)));
+	}
+
+	@Test
+	public void getShouldLoadOnceWhenKeyIsRepeated() {
+		cache.get(key(0L, "gamer"), this::load);
+		Slice<ProductDTO> result = cache.get(key(0L, "gamer"), this::load);
+
+		Assertions.assertEquals("PC Gamer", result.getContent().get(0).getName());
+		Assertions.assertEquals(1, loads.get());
+		CacheStatsDTO stats = cache.stats();
+		Assertions.assertEquals(1L, stats.getHits());
+		Assertions.assertEquals(1L, stats.getMisses());
+	}
+
+	@Test
+	public void getShouldReturnCopiesCallersCanChange() {
+		cache.get(key(0L, "gamer"), this::load).getContent().get(0).setName("Changed");
+		Slice<ProductDTO> result = cache.get(key(0L, "gamer"), this::load);
+
+		Assertions.assertEquals("PC Gamer", result.getContent().get(0).getName());
+		Assertions.assertNotSame(page.getContent().get(0), result.getContent().get(0));
+	}
+
+	@Test
+	public void getShouldLoadAgainWhenCatalogVersionChanges() {
+		cache.get(key(0L, "gamer"), this::load);
+		cache.get(key(1L, "gamer"), this::load);
+
+		Assertions.assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void getShouldEvictLeastRecentlyUsedWhenBudgetIsExceeded() {
+		long entryBytes = SearchResultCache.estimateBytes(page);
+		ReflectionTestUtils.setField(cache, "maxBytes", entryBytes * 2);
+
+		cache.get(key(0L, "a"), this::load);
+		cache.get(key(0L, "b"), this::load);
+		cache.get(key(0L, "a"), this::load);
+		cache.get(key(0L, "c"), this::load);
+		cache.get(key(0L, "a"), this::load);
+
+		CacheStatsDTO stats = cache.stats();
+		Assertions.assertEquals(1L, stats.getEvictions());
+		Assertions.assertEquals(2L, stats.getSize());
+		Assertions.assertEquals(3, loads.get());
+	}
+
+	private Slice<ProductDTO> load() {
+		loads.incrementAndGet();
+		return page;
+	}
+
+	private static SearchResultCache.Key key(long version, String query) {
+		return new SearchResultCache.Key(version, query, CountMode.EXACT, PageRequest.of(0, 12));
+	}
+}
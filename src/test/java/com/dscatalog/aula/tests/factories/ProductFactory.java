@@ -5,6 +5,7 @@ import java.time.Instant;
 import com.dscatalog.aula.dto.ProductDTO;
 import com.dscatalog.aula.entities.Category;
 import com.dscatalog.aula.entities.Product;
+import com.dscatalog.aula.projections.ProductRow;
 
 public class ProductFactory {
 
@@ -19,4 +20,11 @@ public class ProductFactory {
 		Product prod = createProduct();
 		return new ProductDTO(prod, prod.getCategories());
 	}
+	
+	public static ProductRow createProductRow() {
+		Product prod = createProduct();
+		Category cat = CategoryFactory.createCategory();
+		return new ProductRow(prod.getId(), prod.getName(), prod.getDescription(), prod.getPrice(), prod.getImgUrl(),
+				prod.getDate(), prod.getVersion(), cat.getId(), cat.getName());
+	}
 }
@@ -0,0 +1,95 @@
+package com.dscatalog.aula.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.IdProjection;
+import com.dscatalog.aula.projections.ProductProjection;
+
+/**
+ * IdJoin against the HashMap join it replaced, joining a page of product rows
+ * back onto the order of the id query. Run with main(), adding -prof gc to
+ * compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdJoinBenchmark {
+
+	@Param({ "12", "100", "500", "2000" })
+	private int pageSize;
+
+	private List<ProductProjection> ordered;
+	private List<ProductDTO> rows;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		ordered = new ArrayList<>(pageSize);
+		rows = new ArrayList<>(pageSize);
+		for (int i = 0; i < pageSize; i++) {
+			long id = 1 + random.nextInt(1_000_000);
+			ordered.add(new Projection(id));
+			rows.add(new ProductDTO(id, null, null, null, null, null));
+		}
+		Collections.shuffle(rows, random);
+	}
+
+	@Benchmark
+	public List<ProductDTO> idJoin() {
+		return IdJoin.join(ordered, rows);
+	}
+
+	@Benchmark
+	public List<? extends IdProjection<Long>> hashMapJoin() {
+		Map<Long, IdProjection<Long>> map = new HashMap<>();
+		for (IdProjection<Long> x : rows) {
+			map.put(x.getId(), x);
+		}
+		List<IdProjection<Long>> result = new ArrayList<>();
+		for (IdProjection<Long> x : ordered) {
+			result.add(map.get(x.getId()));
+		}
+		return result;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(IdJoinBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	private record Projection(Long id) implements ProductProjection {
+
+		@Override
+		public Long getId() {
+			return id;
+		}
+
+		@Override
+		public String getName() {
+			return null;
+		}
+	}
+}
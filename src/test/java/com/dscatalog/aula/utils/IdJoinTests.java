@@ -0,0 +1,71 @@
+package com.dscatalog.aula.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.dscatalog.aula.dto.ProductDTO;
+import com.dscatalog.aula.projections.IdProjection;
+
+public class IdJoinTests {
+
+	@Test
+	public void joinShouldFollowOrderOfIdsAndSkipMissingOnes() {
+		List<ProductDTO> rows = List.of(product(3L), product(1L), product(7L));
+
+		List<ProductDTO> result = IdJoin.joinIds(List.of(7L, 5L, 3L, 1L), rows);
+
+		Assertions.assertEquals(List.of(7L, 3L, 1L), ids(result));
+	}
+
+	@Test
+	public void joinShouldMatchGenericJoinOnRandomPages() {
+		Random random = new Random(42);
+		for (int size : new int[] { 0, 1, 12, 100, 2000 }) {
+			List<ProductDTO> ordered = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				ordered.add(product(random.nextLong()));
+			}
+			List<ProductDTO> rows = new ArrayList<>(ordered);
+			Collections.shuffle(rows, random);
+			if (size > 0) {
+				rows.remove(0);
+			}
+
+			List<ProductDTO> expected = IdJoin.joinGeneric(ordered, rows);
+			List<ProductDTO> result = IdJoin.join(ordered, rows);
+
+			Assertions.assertEquals(Math.max(0, size - 1), result.size());
+			Assertions.assertEquals(ids(expected), ids(result));
+		}
+	}
+
+	@Test
+	public void joinGenericShouldJoinAnyIdType() {
+		List<Named> rows = List.of(new Named("b"), new Named("a"));
+
+		List<Named> result = IdJoin.joinGeneric(List.of(new Named("a"), new Named("c"), new Named("b")), rows);
+
+		Assertions.assertEquals(List.of("a", "b"), result.stream().map(Named::getId).toList());
+	}
+
+	private static ProductDTO product(Long id) {
+		return new ProductDTO(id, null, null, null, null, null);
+	}
+
+	private static List<Long> ids(List<ProductDTO> list) {
+		return list.stream().map(ProductDTO::getId).toList();
+	}
+
+	private record Named(String id) implements IdProjection<String> {
+
+		@Override
+		public String getId() {
+			return id;
+		}
+	}
+}
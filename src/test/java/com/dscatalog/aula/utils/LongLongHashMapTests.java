@@ -0,0 +1,72 @@
+package com.dscatalog.aula.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LongLongHashMapTests {
+
+	@Test
+	public void getShouldReturnLastValuePutOrMinusOneWhenAbsent() {
+		LongLongHashMap map = new LongLongHashMap(2);
+		map.put(0L, 1L);
+		map.put(-5L, 2L);
+		map.put(-5L, 3L);
+
+		Assertions.assertEquals(1L, map.get(0L));
+		Assertions.assertEquals(3L, map.get(-5L));
+		Assertions.assertEquals(-1L, map.get(7L));
+		Assertions.assertEquals(2, map.size());
+	}
+
+	@Test
+	public void getShouldMatchHashMapOnRandomPutsAndRemovals() {
+		Random random = new Random(7);
+		LongLongHashMap map = new LongLongHashMap(16);
+		Map<Long, Long> expected = new HashMap<>();
+		for (int i = 0; i < 20_000; i++) {
+			long key = random.nextInt(3) == 0 ? random.nextLong() : random.nextInt(2000);
+			if (random.nextInt(4) == 0) {
+				map.remove(key);
+				expected.remove(key);
+			} else {
+				map.put(key, i);
+				expected.put(key, (long) i);
+			}
+		}
+
+		for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+			Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+		for (long key = 0; key < 2000; key++) {
+			Assertions.assertEquals(expected.getOrDefault(key, -1L), map.get(key));
+		}
+		Assertions.assertEquals(expected.size(), map.size());
+	}
+
+	@Test
+	public void copyShouldNotSeeLaterChanges() {
+		LongLongHashMap map = new LongLongHashMap(2);
+		map.put(1L, 10L);
+		LongLongHashMap copy = new LongLongHashMap(map);
+
+		copy.put(2L, 20L);
+		copy.remove(1L);
+
+		Assertions.assertEquals(10L, map.get(1L));
+		Assertions.assertEquals(-1L, map.get(2L));
+		Assertions.assertEquals(-1L, copy.get(1L));
+		Assertions.assertEquals(20L, copy.get(2L));
+	}
+
+	@Test
+	public void putShouldThrowIllegalArgumentExceptionWhenValueIsNegative() {
+		LongLongHashMap map = new LongLongHashMap(1);
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(1L, -1L));
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.dscatalog.aula.utils;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class RoaringBitmapTests {
+
+	@Test
+	public void setOperationsShouldMatchTreeSetOnSparseAndDenseIds() {
+		Random random = new Random(5);
+		for (int range : new int[] { 100, 70_000, 5_000_000 }) {
+			RoaringBitmap a = new RoaringBitmap();
+			RoaringBitmap b = new RoaringBitmap();
+			TreeSet<Long> setA = new TreeSet<>();
+			TreeSet<Long> setB = new TreeSet<>();
+			for (int i = 0; i < 60_000; i++) {
+				long x = random.nextInt(range);
+				long y = random.nextInt(range);
+				Assertions.assertEquals(setA.add(x), a.add(x));
+				Assertions.assertEquals(setB.add(y), b.add(y));
+			}
+			for (int i = 0; i < 30_000; i++) {
+				long x = random.nextInt(range);
+				Assertions.assertEquals(setA.remove(x), a.remove(x));
+			}
+
+			TreeSet<Long> and = new TreeSet<>(setA);
+			and.retainAll(setB);
+			TreeSet<Long> or = new TreeSet<>(setA);
+			or.addAll(setB);
+			TreeSet<Long> andNot = new TreeSet<>(setA);
+			andNot.removeAll(setB);
+			Assertions.assertEquals(setA, toSet(a));
+			Assertions.assertEquals(and, toSet(RoaringBitmap.and(a, b)));
+			Assertions.assertEquals(or, toSet(RoaringBitmap.or(a, b)));
+			Assertions.assertEquals(andNot, toSet(RoaringBitmap.andNot(a, b)));
+			Assertions.assertEquals(setA.size(), a.cardinality());
+		}
+	}
+
+	@Test
+	public void operationsShouldNotModifyTheirOperands() {
+		RoaringBitmap a = RoaringBitmap.of(1L, 2L, 70_000L);
+		RoaringBitmap b = RoaringBitmap.of(2L, 3L);
+
+		RoaringBitmap or = RoaringBitmap.or(a, b);
+		or.add(4L);
+		RoaringBitmap copy = a.copy();
+		copy.remove(70_000L);
+
+		Assertions.assertArrayEquals(new long[] { 1L, 2L, 70_000L }, a.toArray());
+		Assertions.assertArrayEquals(new long[] { 2L, 3L }, b.toArray());
+		Assertions.assertArrayEquals(new long[] { 1L, 2L, 3L, 4L, 70_000L }, or.toArray());
+	}
+
+	@Test
+	public void addShouldThrowIllegalArgumentExceptionWhenIdIsNegative() {
+		RoaringBitmap bitmap = new RoaringBitmap();
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> bitmap.add(-1L));
+	}
+
+	private static TreeSet<Long> toSet(RoaringBitmap bitmap) {
+		TreeSet<Long> result = new TreeSet<>();
+		for (long id : bitmap.toArray()) {
+			result.add(id);
+		}
+		return result;
+	}
+
+}